@@ -0,0 +1,55 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.api.validator.CPFValidador;
+import com.example.userapi.api.validator.LegacyCPFValidador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CPFValidadorBenchmark {
+
+    private static final Map<String, String> INPUTS = Map.of(
+            "valid", "565.378.540-75",
+            "validUnformatted", "56537854075",
+            "invalid", "565.378.540-76",
+            "repeated", "111.111.111-11");
+
+    @Param({"valid", "validUnformatted", "invalid", "repeated"})
+    public String input;
+
+    private final CPFValidador validador = new CPFValidador();
+    private final LegacyCPFValidador legacy = new LegacyCPFValidador();
+    private String cpf;
+
+    @Setup
+    public void setUp() {
+        cpf = INPUTS.get(input);
+    }
+
+    @Benchmark
+    public boolean current() {
+        return validador.isValid(cpf, null);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        return legacy.isValid(cpf, null);
+    }
+}
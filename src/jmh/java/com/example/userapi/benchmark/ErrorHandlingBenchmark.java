@@ -0,0 +1,59 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.api.controller.UserController;
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.util.ApiErrors;
+import com.example.userapi.util.ApplicationAdviceController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ErrorHandlingBenchmark {
+
+    private ApplicationAdviceController advice;
+    private MethodArgumentNotValidException validationException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        advice = new ApplicationAdviceController();
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new UserDTO(), "userDTO");
+        bindingResult.addError(new FieldError("userDTO", "name", "O nome é obrigatório!"));
+        bindingResult.addError(new FieldError("userDTO", "email", "O email é obrigatorio!"));
+        bindingResult.addError(new FieldError("userDTO", "cpf", "O cpf é obrigatório!"));
+        bindingResult.addError(new FieldError("userDTO", "age", "A idade é obrigatória!"));
+
+        MethodParameter parameter = new MethodParameter(UserController.class.getMethod("create", UserDTO.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ApiErrors validationErrors() {
+        return advice.handleValidationErrors(validationException);
+    }
+
+    @Benchmark
+    public ApiErrors businessError() {
+        return advice.handleBusinessException(new BusinessException("Já existe um usuário com o cpf informado!"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * POST /users com 64 clientes simultâneos no Tomcat real, cada um criando usuários distintos,
+ * comparando o commit por requisição ao commit em grupo (users.write.group-commit.enabled). O H2 é
+ * gravado em arquivo para que cada commit chegue ao disco.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class GroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "users.write.group-commit.enabled=" + groupCommit,
+                        "spring.datasource.url=jdbc:h2:file:./target/group-commit-" + groupCommit + ";DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+
+        client = HttpClient.newHttpClient();
+        users = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int create() throws IOException, InterruptedException {
+
+        int n = sequence.getAndIncrement();
+        String body = "{\"name\":\"Usuario " + n + "\",\"email\":\"usuario" + n + "@example.com\",\"cpf\":\""
+                + UserUtil.createValidCpf(100_000_000 + n) + "\",\"age\":30}";
+
+        HttpRequest request = HttpRequest.newBuilder(users)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.service.UserService;
+import com.example.userapi.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das requisições no Tomcat real com os logs de INFO e os comandos SQL habilitados,
+ * gravados no arquivo JSON, em cada modo de log: síncrono, assíncrono (ring buffer do Log4j) e
+ * assíncrono com 10% das requisições na amostra. Cada modo roda em uma JVM própria, já que o
+ * seletor de contexto do Log4j só pode ser definido antes da inicialização.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class LoggingBenchmark {
+
+    private static final int SEEDED_USERS = 1000;
+
+    @Param({"sync", "async", "async-sampled"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI byCpf;
+    private URI page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (mode.startsWith("async")) {
+            System.setProperty("log4j2.contextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
+        }
+        System.setProperty("LOG_PATH", "target/benchmark-logs");
+        System.setProperty("CONSOLE_LOG_THRESHOLD", "OFF");
+
+        context = new SpringApplicationBuilder(UserApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=INFO",
+                        "logging.level.org.hibernate.SQL=DEBUG",
+                        "users.logging.sample-rate=" + (mode.endsWith("sampled") ? 0.1 : 1.0),
+                        "spring.datasource.url=jdbc:h2:mem:logging;DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+
+        UserService userService = context.getBean(UserService.class);
+        userService.saveAll(UserUtil.createNewUserDTOs(SEEDED_USERS, 0));
+
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users";
+        client = HttpClient.newHttpClient();
+        byCpf = URI.create(base + "/cpf/" + UserUtil.createValidCpf(100_000_000));
+        page = URI.create(base + "?limit=20");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getByCpf() throws IOException, InterruptedException {
+        return send(byCpf);
+    }
+
+    @Benchmark
+    public int findPage() throws IOException, InterruptedException {
+        return send(page);
+    }
+
+    private int send(URI uri) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.util.UserUtil;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private UserDTO userDTO;
+    private UserDTO patch;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setSkipNullEnabled(true);
+        userMapper = new UserMapper();
+        userDTO = UserUtil.createNewUserDTO();
+        patch = UserDTO.builder().age(60).build();
+        user = UserUtil.createNewUser();
+        user.setId(1L);
+    }
+
+    @Benchmark
+    public User modelMapperToEntity() {
+        return modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public UserDTO modelMapperToDTO() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public User userMapperToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO userMapperToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User userMapperToPatch() {
+        return userMapper.toEntity(patch);
+    }
+
+    @Benchmark
+    public List<String> userMapperToFields() {
+        return userMapper.toFields("email,name,age");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.service.UserService;
+import com.example.userapi.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.netty.DisposableServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara as mesmas leituras no Tomcat com JPA e no Netty com R2DBC, lado a lado na mesma
+ * aplicação e sobre a mesma base, com mais clientes simultâneos do que threads no pool do Tomcat.
+ * O driver R2DBC do H2 bloqueia internamente: com o MySQL a diferença tende a ser maior.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(400)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReactiveStackBenchmark {
+
+    private static final int SEEDED_USERS = 1000;
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI byId;
+    private URI page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserApiApplication.class)
+                .profiles("reactive", "test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.r2dbc.url=r2dbc:pool:h2:mem:///reactive?maxSize=10")
+                .run();
+
+        UserService userService = context.getBean(UserService.class);
+        Long userId = userService.saveAll(UserUtil.createNewUserDTOs(SEEDED_USERS, 0)).get(0).getId();
+
+        String base = "servlet".equals(stack)
+                ? "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/users"
+                : "http://localhost:" + context.getBean(DisposableServer.class).port() + "/api/users";
+        client = HttpClient.newHttpClient();
+        byId = URI.create(base + "/" + userId);
+        page = URI.create(base + "?limit=20");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getById() throws IOException, InterruptedException {
+        return send(byId);
+    }
+
+    @Benchmark
+    public int findPage() throws IOException, InterruptedException {
+        return send(page);
+    }
+
+    private int send(URI uri) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import com.example.userapi.service.impl.UserSearchIndex;
+import com.example.userapi.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a busca por substring em nome e email feita pela consulta por exemplo
+ * (lower(col) like '%termo%') com a busca pelo índice de trigramas, sobre o H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SearchBenchmark {
+
+    private static final int INSERT_CHUNK = 50_000;
+
+    @Param("1000000")
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private User byName;
+    private User byEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "users.search-index.enabled=true",
+                        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        UserMapper userMapper = context.getBean(UserMapper.class);
+
+        for (int offset = 0; offset < users; offset += INSERT_CHUNK) {
+            userService.insertAll(UserUtil.createNewUserDTOs(Math.min(INSERT_CHUNK, users - offset), offset)
+                    .stream().map(userMapper::toEntity).collect(Collectors.toList()));
+        }
+
+        context.getBean(UserSearchIndex.class).rebuild();
+
+        byName = User.builder().name("Usuario " + (users / 2)).build();
+        byEmail = User.builder().email((users / 3) + "@example").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> nameByExample() {
+        return userRepository.findAll(example(byName));
+    }
+
+    @Benchmark
+    public List<User> nameByIndex() {
+        return userService.find(byName);
+    }
+
+    @Benchmark
+    public List<User> emailByExample() {
+        return userRepository.findAll(example(byEmail));
+    }
+
+    @Benchmark
+    public List<User> emailByIndex() {
+        return userService.find(byEmail);
+    }
+
+    private static Example<User> example(User filter) {
+        return UserUtil.createFilterUser(filter);
+    }
+}
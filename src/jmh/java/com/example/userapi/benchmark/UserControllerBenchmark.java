@@ -0,0 +1,158 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.service.UserService;
+import com.example.userapi.util.UserUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserControllerBenchmark {
+
+    private static final int SEEDED_USERS = 1000;
+
+    private final AtomicInteger sequence = new AtomicInteger(SEEDED_USERS);
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ObjectMapper objectMapper;
+    private MockMvc mvc;
+    private Long userId;
+    private UserDTO replacement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+
+        mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        userService = context.getBean(UserService.class);
+
+        List<UserDTO> users = UserUtil.createNewUserDTOs(SEEDED_USERS, 0);
+        userId = userService.saveAll(users).get(0).getId();
+        replacement = users.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult create() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(nextUsers(1).get(0))))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createBatch() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(nextUsers(100))))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getById() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.get("/users/" + userId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult find() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.get("/users").param("name", "Usuario 99")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findPage() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.get("/users").param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult export() throws Exception {
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/users/export")).andReturn();
+        return mvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult update() throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.patch("/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\":" + (18 + sequence.incrementAndGet() % 80) + "}"))
+                .andReturn();
+    }
+
+    @Benchmark
+    public Optional<User> updateFields() {
+        return userService.update(userId, null, UserDTO.builder().age(18 + sequence.incrementAndGet() % 80).build());
+    }
+
+    @Benchmark
+    public MvcResult replace() throws Exception {
+        replacement.setAge(18 + sequence.incrementAndGet() % 80);
+        return mvc.perform(MockMvcRequestBuilders.put("/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(replacement)))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult delete(UserToDelete user) throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.delete("/users/" + user.id)).andReturn();
+    }
+
+    private List<UserDTO> nextUsers(int count) {
+        return UserUtil.createNewUserDTOs(count, sequence.getAndAdd(count));
+    }
+
+    @State(Scope.Thread)
+    public static class UserToDelete {
+
+        private Long id;
+
+        @Setup(Level.Invocation)
+        public void setUp(UserControllerBenchmark benchmark) {
+            UserBatchResultDTO result = benchmark.userService.saveAll(benchmark.nextUsers(1)).get(0);
+            id = result.getId();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidationBenchmark {
+
+    private Validator validator;
+    private UserDTO validDTO;
+    private UserDTO invalidDTO;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        validDTO = UserUtil.createNewUserDTO();
+        invalidDTO = new UserDTO();
+        user = UserUtil.createNewUser();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validUserDTO() {
+        return validator.validate(validDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> invalidUserDTO() {
+        return validator.validate(invalidDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validUser() {
+        return validator.validate(user);
+    }
+}
@@ -1,31 +1,46 @@
 package com.example.userapi.api.controller;
 
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
 import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
 import com.example.userapi.model.entity.User;
 import com.example.userapi.service.UserService;
+import com.example.userapi.util.ETagUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @CrossOrigin(origins = "*", maxAge = 3600)
 @Log4j2
 @RequestMapping("/users")
 public class UserController {
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
 
     @Autowired
     private UserService userService;
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,13 +54,31 @@ public class UserController {
 
         log.info("Criando usuário com cpf: {}", dto.getCpf());
 
-        User entity = modelMapper.map( dto, User.class );
+        User entity = userMapper.toEntity(dto);
 
         entity = userService.save(entity);
 
         log.info("Usuário com cpf: {} criado com sucesso ", dto.getCpf());
 
-        return new ResponseEntity<>(modelMapper.map(entity, UserDTO.class), HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETagUtils.of(entity.getVersion()))
+                .body(userMapper.toDTO(entity));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Cria usuários em lote", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado com o resultado de cada usuário"),
+                    @ApiResponse(responseCode = "400", description = "Erro durante o processamento do lote")
+            }
+    )
+    public ResponseEntity<List<UserBatchResultDTO>> createAll(@RequestBody List<UserDTO> dtos){
+
+        log.info("Criando lote com {} usuários", dtos.size());
+
+        List<UserBatchResultDTO> results = userService.saveAll(dtos);
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
@@ -59,11 +92,55 @@ public class UserController {
 
         log.info("Obtendo o  usuário com id: {}", userId);
 
-        UserDTO userDTO = userService.findById(userId)
-                                    .map(user -> modelMapper.map(user, UserDTO.class))
+        User entity = userService.findById(userId)
+                                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(entity.getVersion()))
+                .body(userMapper.toDTO(entity));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtem apenas os campos informados de um usuário por id", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Retorna os campos do usuário com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Campo inválido"),
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            }
+    )
+    public ResponseEntity<Map<String, Object>> getFieldsById(@PathVariable(value = "id") Long userId,
+                                                             @RequestParam(value = "fields") String fields) {
+
+        log.info("Obtendo os campos {} do usuário com id: {}", fields, userId);
+
+        Map<String, Object> user = userService.findById(userId, userMapper.toFields(fields))
+                                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+
+        Object version = user.get("version");
+
+        return version != null
+                ? ResponseEntity.ok().eTag(ETagUtils.of((Long) version)).body(user)
+                : ResponseEntity.ok(user);
+    }
+
+    @GetMapping("/cpf/{cpf}")
+    @Operation(summary = "Obtem um usuário por cpf", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Retorna um usuário com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Cpf inválido"),
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            }
+    )
+    public ResponseEntity<UserDTO> getByCpf(@PathVariable(value = "cpf") String cpf) {
+
+        log.info("Obtendo o usuário com cpf: {}", cpf);
+
+        User entity = userService.findByCpf(cpf)
                                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
 
-        return new ResponseEntity<>(userDTO, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(entity.getVersion()))
+                .body(userMapper.toDTO(entity));
     }
 
     @DeleteMapping("/{id}")
@@ -71,55 +148,62 @@ public class UserController {
     @Operation(summary = "Deleta um usuário por id", tags = {"Users"},
             responses = {
                     @ApiResponse(responseCode = "204", description = "Usuário deletado com sucesso"),
-                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+                    @ApiResponse(responseCode = "412", description = "A versão informada em If-Match não é a atual")
             }
     )
-    public void deleteById(@PathVariable(value = "id") Long userId) {
+    public void deleteById(@PathVariable(value = "id") Long userId,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("Deletando usuário com id: {} ", userId);
 
-        User entity = userService.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
-
-        userService.delete(entity);
+        if (!userService.delete(userId, ETagUtils.parseIfMatch(ifMatch))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        }
     }
 
     @PutMapping("{id}")
     @Operation(summary = "Atualiza usuário com id", tags = {"Users"},
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso"),
-                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+                    @ApiResponse(responseCode = "412", description = "A versão informada em If-Match não é a atual")
             }
     )
-    public ResponseEntity<UserDTO> replace(@PathVariable(value = "id") Long userId, @Valid @RequestBody UserDTO dto){
+    public ResponseEntity<UserDTO> replace(@PathVariable(value = "id") Long userId,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @Valid @RequestBody UserDTO dto){
 
         log.info("Atualizando usuário com id: {} ", userId);
 
-        User entity = userService.findById(userId)
+        User entity = userService.replace(userId, ETagUtils.parseIfMatch(ifMatch), dto)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
 
-        entity = userService.replace(dto, entity);
-
-        return new ResponseEntity<>(modelMapper.map(entity, UserDTO.class), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(entity.getVersion()))
+                .body(userMapper.toDTO(entity));
     }
 
     @PatchMapping("{id}")
     @Operation(summary = "Atualiza parcialmente usuário com id", tags = {"Users"},
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso"),
-                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+                    @ApiResponse(responseCode = "412", description = "A versão informada em If-Match não é a atual")
             }
     )
-    public ResponseEntity<UserDTO> update(@PathVariable(value = "id") Long userId, @RequestBody UserDTO dto){
+    public ResponseEntity<UserDTO> update(@PathVariable(value = "id") Long userId,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestBody UserDTO dto){
 
         log.info("Atualizando usuário parcialmente com id: {} ", userId);
 
-        User entity = userService.findById(userId)
+        User entity = userService.update(userId, ETagUtils.parseIfMatch(ifMatch), dto)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
 
-        entity = userService.update(dto, entity);
-
-        return new ResponseEntity<>(modelMapper.map(entity, UserDTO.class), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(entity.getVersion()))
+                .body(userMapper.toDTO(entity));
     }
 
     @GetMapping
@@ -133,11 +217,104 @@ public class UserController {
 
         log.info("Buscando listagem de usuários cadastrados");
 
-        User filter = modelMapper.map(dto, User.class);
+        User filter = userMapper.toEntity(dto);
 
         List<User> result = userService.find(filter);
 
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Busca usuários por parâmetros com paginação por cursor", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de usuários buscada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Erro durante a busca de usuários")
+            }
+    )
+    public ResponseEntity<CursorPageDTO<User>> findPage(UserDTO dto,
+                                                        @RequestParam(value = "limit") int limit,
+                                                        @RequestParam(value = "after", required = false) String after){
+
+        log.info("Buscando página de usuários cadastrados após o cursor: {}", after);
+
+        User filter = userMapper.toEntity(dto);
+
+        CursorPageDTO<User> result = userService.find(filter, after, limit);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @GetMapping(params = "fields")
+    @Operation(summary = "Busca apenas os campos informados dos usuários por parâmetros", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuários buscados com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Erro durante a busca de usuários")
+            }
+    )
+    public ResponseEntity<List<Map<String, Object>>> findFields(UserDTO dto,
+                                                                @RequestParam(value = "fields") String fields){
+
+        log.info("Buscando os campos {} dos usuários cadastrados", fields);
+
+        User filter = userMapper.toEntity(dto);
+
+        List<Map<String, Object>> result = userService.find(filter, userMapper.toFields(fields));
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @GetMapping(params = {"fields", "limit"})
+    @Operation(summary = "Busca apenas os campos informados dos usuários com paginação por cursor", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de usuários buscada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Erro durante a busca de usuários")
+            }
+    )
+    public ResponseEntity<CursorPageDTO<Map<String, Object>>> findFieldsPage(UserDTO dto,
+                                                                             @RequestParam(value = "fields") String fields,
+                                                                             @RequestParam(value = "limit") int limit,
+                                                                             @RequestParam(value = "after", required = false) String after){
+
+        log.info("Buscando os campos {} de uma página de usuários cadastrados após o cursor: {}", fields, after);
+
+        User filter = userMapper.toEntity(dto);
+
+        CursorPageDTO<Map<String, Object>> result = userService.find(filter, after, limit, userMapper.toFields(fields));
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Exporta todos os usuários em NDJSON", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuários exportados com sucesso")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> export(){
+
+        log.info("Exportando usuários cadastrados");
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                AtomicLong exported = new AtomicLong();
+                userService.export(user -> {
+                    try {
+                        generator.writeObject(user);
+                        generator.writeRaw('\n');
+                        if (exported.incrementAndGet() % EXPORT_FLUSH_INTERVAL == 1) {
+                            generator.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
 }
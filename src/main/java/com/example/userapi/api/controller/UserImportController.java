@@ -0,0 +1,56 @@
+package com.example.userapi.api.controller;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import com.example.userapi.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Log4j2
+@RequestMapping("/users/import")
+public class UserImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Importa usuários a partir de um arquivo CSV", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Importação iniciada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Erro ao receber o arquivo de importação")
+            }
+    )
+    public ResponseEntity<ImportJobDTO> start(@RequestParam("file") MultipartFile file){
+
+        log.info("Recebendo arquivo de importação: {}", file.getOriginalFilename());
+
+        ImportJobDTO job = userImportService.start(file);
+
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Obtem o progresso de uma importação", tags = {"Users"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Retorna o progresso e os erros da importação"),
+                    @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+            }
+    )
+    public ResponseEntity<ImportJobDTO> findJob(@PathVariable(value = "jobId") String jobId){
+
+        ImportJobDTO job = userImportService.findJob(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada"));
+
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.userapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private String id;
+
+    private Status status;
+
+    private long processedRows;
+
+    private long createdRows;
+
+    private long duplicateRows;
+
+    private long invalidRows;
+
+    private List<ImportRowErrorDTO> errors;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
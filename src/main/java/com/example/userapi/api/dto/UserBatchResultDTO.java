@@ -0,0 +1,29 @@
+package com.example.userapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResultDTO {
+
+    private int index;
+
+    private Status status;
+
+    private Long id;
+
+    private List<String> errors;
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.userapi.api.handler;
+
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.service.ReactiveUserService;
+import com.example.userapi.util.ApiErrors;
+import com.example.userapi.util.ETagUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versão reativa das leituras do UserController: as listas são enviadas como Flux, respeitando
+ * a demanda do cliente, e nenhuma thread fica bloqueada aguardando a base.
+ */
+@Component
+@Profile("reactive")
+@Log4j2
+public class UserHandler {
+
+    private final ReactiveUserService userService;
+    private final UserMapper userMapper;
+
+    public UserHandler(ReactiveUserService userService, UserMapper userMapper) {
+        this.userService = userService;
+        this.userMapper = userMapper;
+    }
+
+    public Mono<ServerResponse> getById(ServerRequest request) {
+
+        Long userId = parseLong(request.pathVariable("id"), "O id informado é inválido!");
+
+        log.info("Obtendo o usuário com id: {}", userId);
+
+        return userService.findById(userId)
+                .flatMap(user -> ServerResponse.ok()
+                        .eTag(ETagUtils.of(user.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(userMapper.toDTO(user)))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new ApiErrors("Usuário não encontrado"))));
+    }
+
+    public Mono<ServerResponse> find(ServerRequest request) {
+
+        User filter = userMapper.toEntity(filter(request));
+
+        if (request.queryParam("limit").isPresent()) {
+
+            log.info("Buscando página de usuários cadastrados após o cursor: {}", request.queryParam("after").orElse(null));
+
+            int limit = (int) parseLong(request.queryParam("limit").get(), "O limite informado é inválido!").longValue();
+
+            return userService.find(filter, request.queryParam("after").orElse(null), limit)
+                    .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+        }
+
+        log.info("Buscando listagem de usuários cadastrados");
+
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+
+        return ServerResponse.ok().contentType(mediaType).body(userService.find(filter), User.class);
+    }
+
+    public Mono<ServerResponse> export(ServerRequest request) {
+
+        log.info("Exportando usuários cadastrados");
+
+        Flux<User> users = userService.export();
+
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(users, User.class);
+    }
+
+    public Mono<ServerResponse> handleBusinessException(Throwable ex, ServerRequest request) {
+
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ApiErrors(ex.getMessage()));
+    }
+
+    private static UserDTO filter(ServerRequest request) {
+
+        return UserDTO.builder()
+                .name(request.queryParam("name").orElse(null))
+                .email(request.queryParam("email").orElse(null))
+                .cpf(request.queryParam("cpf").orElse(null))
+                .age(request.queryParam("age").map(age -> (int) parseLong(age, "A idade informada é inválida!").longValue()).orElse(null))
+                .build();
+    }
+
+    private static Long parseLong(String value, String message) {
+
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new BusinessException(message);
+        }
+    }
+}
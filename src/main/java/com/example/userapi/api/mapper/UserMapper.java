@@ -0,0 +1,104 @@
+package com.example.userapi.api.mapper;
+
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.util.CPFUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserMapper {
+    public static final String ID_FIELD = "id";
+    public static final List<String> FIELDS = List.of(ID_FIELD, "name", "email", "cpf", "age", "version");
+
+    public User toEntity(UserDTO dto) {
+        return User.builder()
+                .name(dto.getName())
+                .email(dto.getEmail())
+                .cpf(CPFUtils.parse(dto.getCpf()))
+                .age(dto.getAge())
+                .build();
+    }
+
+    public UserDTO toDTO(User user) {
+        return UserDTO.builder()
+                .name(user.getName())
+                .email(user.getEmail())
+                .cpf(CPFUtils.format(user.getCpf()))
+                .age(user.getAge())
+                .build();
+    }
+
+    /**
+     * Converte o parâmetro fields (nomes separados por vírgula) nos campos a buscar, sem repetições
+     * e sempre começando pelo id, que identifica o usuário e serve de cursor nas páginas.
+     */
+    public List<String> toFields(String fields) {
+
+        List<String> selected = new ArrayList<>(FIELDS.size());
+        selected.add(ID_FIELD);
+
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+
+            if (!FIELDS.contains(name)) {
+                throw new BusinessException("O campo informado é inválido: " + name + "!");
+            }
+
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Monta a representação parcial do usuário a partir dos valores buscados, na ordem dos campos.
+     */
+    public Map<String, Object> toMap(List<String> fields, Object[] values) {
+
+        Map<String, Object> user = new LinkedHashMap<>(fields.size() * 2);
+
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            user.put(field, "cpf".equals(field) ? CPFUtils.format((Long) values[i]) : values[i]);
+        }
+
+        return user;
+    }
+
+    public Map<String, Object> toMap(List<String> fields, User user) {
+
+        Object[] values = new Object[fields.size()];
+
+        for (int i = 0; i < fields.size(); i++) {
+            values[i] = value(user, fields.get(i));
+        }
+
+        return toMap(fields, values);
+    }
+
+    private static Object value(User user, String field) {
+
+        switch (field) {
+            case ID_FIELD:
+                return user.getId();
+            case "name":
+                return user.getName();
+            case "email":
+                return user.getEmail();
+            case "cpf":
+                return user.getCpf();
+            case "age":
+                return user.getAge();
+            case "version":
+                return user.getVersion();
+            default:
+                throw new IllegalArgumentException("Campo desconhecido: " + field);
+        }
+    }
+}
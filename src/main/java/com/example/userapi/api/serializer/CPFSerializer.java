@@ -0,0 +1,20 @@
+package com.example.userapi.api.serializer;
+
+import com.example.userapi.util.CPFUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class CPFSerializer extends StdSerializer<Long> {
+
+    public CPFSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cpf, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeString(CPFUtils.format(cpf));
+    }
+}
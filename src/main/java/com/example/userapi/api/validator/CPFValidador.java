@@ -10,34 +10,80 @@ public class CPFValidador implements ConstraintValidator<CPF, String> {
 
     @Override
     public boolean isValid(String cpf, ConstraintValidatorContext context) {
-        if (cpf != null) {
-
-            if (!cpf.matches(CPF_REGEXP)) return false;
-
-            cpf = cpf.replaceAll("[^0-9]", "");
-
-            if (cpf.length() != 11) return false;
+        return cpf == null || isValid(cpf);
+    }
 
-            if (cpf.matches("(\\d)\\1{10}")) return false;
+    public static boolean isValid(String cpf) {
+        int length = cpf.length();
+
+        if (length < 11 || length > 14) return false;
+
+        int digits = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int primeiro = -1;
+        boolean repetido = true;
+        boolean anteriorDigito = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = cpf.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                int digito = c - '0';
+
+                if (primeiro < 0) {
+                    primeiro = digito;
+                } else if (digito != primeiro) {
+                    repetido = false;
+                }
+
+                if (digits < 9) {
+                    soma1 += digito * (10 - digits);
+                    soma2 += digito * (11 - digits);
+                } else if (digits == 9) {
+                    if (digito != calcularDigitoVerificador(soma1)) return false;
+                    soma2 += digito * 2;
+                } else if (digits == 10) {
+                    if (digito != calcularDigitoVerificador(soma2)) return false;
+                } else {
+                    return false;
+                }
+
+                digits++;
+                anteriorDigito = true;
+            } else if (anteriorDigito && ((c == '.' && (digits == 3 || digits == 6)) || (c == '-' && digits == 9))) {
+                anteriorDigito = false;
+            } else {
+                return false;
+            }
+        }
 
-            int digito1 = calcularDigitoVerificador(cpf.substring(0, 9));
+        return digits == 11 && !repetido;
+    }
 
-            int digito2 = calcularDigitoVerificador(cpf.substring(0, 9) + digito1);
+    /**
+     * Completa os nove primeiros dígitos do cpf com os dígitos verificadores, na forma numérica canônica.
+     */
+    public static long withCheckDigits(int base) {
+        int soma1 = 0;
+        int soma2 = 0;
+        int restante = base;
 
-            return cpf.endsWith(Integer.toString(digito1).concat(Integer.toString(digito2)));
+        for (int posicao = 8; posicao >= 0; posicao--) {
+            int digito = restante % 10;
+            restante /= 10;
 
+            soma1 += digito * (10 - posicao);
+            soma2 += digito * (11 - posicao);
         }
-        return true;
-    }
 
-    private static int calcularDigitoVerificador(String digits) {
-        int soma = 0;
-        int peso = digits.length() + 1;
+        int digito1 = calcularDigitoVerificador(soma1);
+        int digito2 = calcularDigitoVerificador(soma2 + digito1 * 2);
 
-        for (int i = 0; i < digits.length(); i++) {
-            soma += Character.getNumericValue(digits.charAt(i)) * peso--;
-        }
+        return base * 100L + digito1 * 10 + digito2;
+    }
 
+    private static int calcularDigitoVerificador(int soma) {
         int resto = soma % 11;
         return resto < 2 ? 0 : 11 - resto;
     }
@@ -0,0 +1,103 @@
+package com.example.userapi.configs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência observada, no estilo do gradiente do
+ * TCP Vegas: a latência de longo prazo (média exponencial) é comparada à de cada requisição e,
+ * enquanto a última não passa de users.concurrency-limit.rtt-tolerance vezes a primeira, o limite
+ * cresce com a raiz do limite atual. Acima disso ele diminui na proporção do aumento da latência,
+ * até a metade por amostra, e cada requisição terminada com erro 5xx o reduz pelo fator
+ * users.concurrency-limit.backoff-ratio. O limite só cresce quando está sendo usado, para não
+ * disparar em períodos de pouco tráfego.
+ */
+class AdaptiveConcurrencyLimit {
+    private static final int LONG_RTT_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                             double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserva uma vaga se houver menos requisições em andamento que a fração share do limite.
+     */
+    boolean tryAcquire(double share) {
+
+        int allowed = Math.max(1, (int) (limit * share));
+
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= allowed) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga sem ajustar o limite, para requisições cuja duração não representa a carga.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite pela latência da requisição, em nanossegundos.
+     */
+    void release(long rtt, boolean dropped) {
+        update(rtt, inFlight.getAndDecrement(), dropped);
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rtt, int inFlight, boolean dropped) {
+
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+
+        double shortRtt = Math.max(1, rtt);
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_RTT_WINDOW;
+
+        // Depois de um período lento a média de longo prazo demora a voltar: aproxima ela da latência atual
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimated = limit * gradient + Math.sqrt(limit);
+
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimated * smoothing));
+    }
+}
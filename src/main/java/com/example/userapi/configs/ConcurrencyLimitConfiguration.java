@@ -0,0 +1,50 @@
+package com.example.userapi.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Limite adaptativo de concorrência em /users, desligado com users.concurrency-limit.enabled=false.
+ * O actuator fica de fora, para que as verificações de saúde continuem respondendo sob sobrecarga.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+class ConcurrencyLimitConfiguration {
+
+    // Depois do filtro de métricas do Spring, para que as recusas apareçam em http.server.requests
+    private static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(
+            @Value("${users.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${users.concurrency-limit.min-limit:5}") int minLimit,
+            @Value("${users.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${users.concurrency-limit.rtt-tolerance:1.5}") double tolerance,
+            @Value("${users.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${users.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing, backoffRatio);
+    }
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimit adaptiveConcurrencyLimit, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${users.concurrency-limit.read-share:0.9}") double readShare,
+            @Value("${users.concurrency-limit.write-share:1.0}") double writeShare,
+            @Value("${users.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(adaptiveConcurrencyLimit, objectMapper, meterRegistry,
+                        readShare, writeShare, retryAfter));
+        registration.addUrlPatterns("/users", "/users/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
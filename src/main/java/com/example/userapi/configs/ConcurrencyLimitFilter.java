@@ -0,0 +1,102 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.util.ApiErrors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Recusa imediatamente com 503 e Retry-After as requisições que ultrapassam o
+ * {@link AdaptiveConcurrencyLimit}, em vez de deixá-las esperando por uma thread do Tomcat ou por
+ * uma conexão com a base. Leituras e escritas podem ocupar frações diferentes do limite
+ * (users.concurrency-limit.read-share e write-share), de modo que a classe com a menor fração é
+ * recusada primeiro. Requisições assíncronas, como a exportação, liberam a vaga ao iniciar e não
+ * ajustam o limite.
+ */
+class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final ObjectMapper objectMapper;
+    private final double readShare;
+    private final double writeShare;
+    private final String retryAfter;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+
+    ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           double readShare, double writeShare, Duration retryAfter) {
+        this.limit = limit;
+        this.objectMapper = objectMapper;
+        this.readShare = readShare;
+        this.writeShare = writeShare;
+        this.retryAfter = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        this.readsRejected = rejected(meterRegistry, "read");
+        this.writesRejected = rejected(meterRegistry, "write");
+
+        Gauge.builder("users.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Limite atual de requisições simultâneas em /users")
+                .register(meterRegistry);
+        Gauge.builder("users.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requisições em andamento em /users")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean read = READ_METHODS.contains(request.getMethod());
+
+        if (!limit.tryAcquire(read ? readShare : writeShare)) {
+            (read ? readsRejected : writesRejected).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                limit.release();
+            } else {
+                limit.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiErrors("O serviço está sobrecarregado, tente novamente em instantes!"));
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String priority) {
+        return Counter.builder("users.concurrency.rejected")
+                .description("Requisições em /users recusadas pelo limite de concorrência")
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userapi.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de execução das requisições, definido em users.execution.mode. No modo "virtual" o Tomcat
+ * e as tarefas assíncronas do Spring MVC rodam em threads virtuais (Java 21 ou superior): a
+ * concorrência deixa de ser limitada pelo pool de threads e passa a ser limitada pelo pool de
+ * conexões, que é dimensionado pela quantidade de processadores quando não é configurado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.execution.mode", havingValue = "virtual")
+@Log4j2
+class ExecutionModeConfiguration {
+    static final String MAXIMUM_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService virtualThreadExecutor() {
+
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+
+            log.info("Requisições serão executadas em threads virtuais");
+
+            return executor;
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("O modo de execução com threads virtuais exige Java 21 ou superior, versão atual: "
+                    + Runtime.version(), ex);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Erro ao criar o executor de threads virtuais", ex);
+        }
+    }
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    static BeanPostProcessor connectionPoolSizer(Environment environment) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+                if (bean instanceof HikariDataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE_PROPERTY)) {
+                    int size = connectionPoolSize(Runtime.getRuntime().availableProcessors());
+                    ((HikariDataSource) bean).setMaximumPoolSize(size);
+
+                    log.info("Pool de conexões dimensionado com {} conexões para threads virtuais", size);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Fórmula recomendada pelo HikariCP: núcleos * 2 + 1 disco efetivo.
+     */
+    static int connectionPoolSize(int processors) {
+        return processors * 2 + 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.userapi.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Suporte ao cabeçalho Idempotency-Key. As respostas ficam em memória por padrão; com
+ * users.idempotency.store=jdbc ficam na tabela tb_idempotency_keys, compartilhada entre instâncias.
+ */
+@Configuration
+class IdempotencyConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "users.idempotency.store", havingValue = "local", matchIfMissing = true)
+    IdempotencyStore localIdempotencyStore(MeterRegistry meterRegistry,
+                                           @Value("${users.idempotency.ttl:PT24H}") Duration ttl,
+                                           @Value("${users.idempotency.local.max-size:64MB}") DataSize maxSize) {
+        return new LocalIdempotencyStore(meterRegistry, ttl, maxSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "users.idempotency.store", havingValue = "jdbc")
+    IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                          @Value("${users.idempotency.ttl:PT24H}") Duration ttl,
+                                          @Value("${users.idempotency.jdbc.lease:PT1M}") Duration lease,
+                                          @Value("${users.idempotency.jdbc.poll-interval:50ms}") Duration pollInterval) {
+        return new JdbcIdempotencyStore(jdbcTemplate, ttl, lease, pollInterval);
+    }
+
+    @Bean
+    IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${users.idempotency.wait:PT10S}") Duration wait,
+                                        @Value("${users.idempotency.max-body-size:10MB}") DataSize maxBodySize) {
+        return new IdempotencyFilter(idempotencyStore, objectMapper, meterRegistry, wait, maxBodySize);
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.util.ApiErrors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Torna idempotentes as requisições POST, PUT e PATCH que informam o cabeçalho Idempotency-Key:
+ * a primeira resposta abaixo de 500 é gravada no {@link IdempotencyStore} e repetida nas
+ * requisições seguintes com a mesma chave, sem executá-las. Requisições simultâneas com a chave
+ * aguardam a primeira até users.idempotency.wait. Reutilizar a chave em outra requisição (outro
+ * método, caminho ou corpo) é recusado com 422. Uploads multipart não são tratados.
+ */
+class IdempotencyFilter extends OncePerRequestFilter {
+    static final String KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration wait;
+    private final long maxBodySize;
+
+    IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      Duration wait, DataSize maxBodySize) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.wait = wait;
+        this.maxBodySize = maxBodySize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+
+        String contentType = request.getContentType();
+
+        return !METHODS.contains(request.getMethod())
+                || request.getHeader(KEY_HEADER) == null
+                || (contentType != null && contentType.startsWith("multipart/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(KEY_HEADER);
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "invalid_key",
+                    "A chave de idempotência deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres!");
+            return;
+        }
+
+        byte[] body = readBody(request);
+
+        if (body == null) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "body_too_large",
+                    "O corpo da requisição é grande demais para ser usado com uma chave de idempotência!");
+            return;
+        }
+
+        String fingerprint = fingerprint(request, body);
+        IdempotentResponse stored;
+
+        try {
+            stored = store.acquire(key, wait);
+        } catch (TimeoutException ex) {
+            reject(response, HttpStatus.CONFLICT, "in_progress",
+                    "Uma requisição com a mesma chave de idempotência ainda está em andamento!");
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Espera pela chave de idempotência interrompida", ex);
+        }
+
+        if (stored != null) {
+            replay(response, stored, fingerprint);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+
+        try {
+            filterChain.doFilter(new BufferedBodyRequest(request, body), cachingResponse);
+
+            if (cachingResponse.getStatus() < 500 && !request.isAsyncStarted()) {
+                store.complete(key, new IdempotentResponse(fingerprint, cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), cachingResponse.getHeader(HttpHeaders.ETAG),
+                        cachingResponse.getHeader(HttpHeaders.LOCATION), cachingResponse.getContentAsByteArray()));
+                completed = true;
+                count("executed");
+            }
+        } finally {
+            if (!completed) {
+                store.release(key);
+            }
+
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse stored, String fingerprint) throws IOException {
+
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "mismatch",
+                    "A chave de idempotência já foi usada em outra requisição!");
+            return;
+        }
+
+        count("replayed");
+
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+
+        if (stored.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.getEtag());
+        }
+
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String result, String message) throws IOException {
+
+        count(result);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ApiErrors(message));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("users.idempotency.requests", "result", result).increment();
+    }
+
+    /**
+     * Lê o corpo inteiro, ou retorna null se ele ultrapassar users.idempotency.max-body-size.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+
+        if (request.getContentLengthLong() > maxBodySize) {
+            return null;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(Math.max(0, request.getContentLength()));
+        byte[] buffer = new byte[8192];
+
+        try (InputStream input = request.getInputStream()) {
+            int read;
+
+            while ((read = input.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+
+                if (body.size() > maxBodySize) {
+                    return null;
+                }
+            }
+        }
+
+        return body.toByteArray();
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
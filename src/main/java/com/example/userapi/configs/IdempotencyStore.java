@@ -0,0 +1,22 @@
+package com.example.userapi.configs;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Respostas das requisições com Idempotency-Key. Uma chave é reservada pela primeira requisição
+ * que a usa e, ao final dela, recebe a resposta ou é liberada para ser executada de novo.
+ */
+interface IdempotencyStore {
+
+    /**
+     * Retorna a resposta gravada para a chave ou, se outra requisição com ela estiver em andamento,
+     * aguarda até wait pela resposta dela. Retorna null quando a chave foi reservada e a requisição
+     * deve ser executada.
+     */
+    IdempotentResponse acquire(String key, Duration wait) throws TimeoutException, InterruptedException;
+
+    void complete(String key, IdempotentResponse response);
+
+    void release(String key);
+}
@@ -0,0 +1,18 @@
+package com.example.userapi.configs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resposta gravada para uma chave de idempotência, com a impressão digital da requisição que a gerou.
+ */
+@Getter
+@AllArgsConstructor
+class IdempotentResponse {
+    private final String fingerprint;
+    private final int status;
+    private final String contentType;
+    private final String etag;
+    private final String location;
+    private final byte[] body;
+}
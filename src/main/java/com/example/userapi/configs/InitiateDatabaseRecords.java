@@ -2,42 +2,58 @@ package com.example.userapi.configs;
 
 import com.example.userapi.model.entity.User;
 import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.service.UserService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 
+import java.util.List;
 
+/**
+ * Insere os registros iniciais quando a base está vazia. A verificação consulta apenas se existe
+ * algum usuário e roda depois da inicialização do contexto, e a inserção é feita em lote pelo
+ * serviço para que o filtro de chaves e os índices em memória já conheçam os registros.
+ */
 @Configuration
 @Profile("!test")
+@ConditionalOnProperty(name = "users.seed.enabled", havingValue = "true", matchIfMissing = true)
 @Log4j2
 class InitiateDatabaseRecords {
-
-   @Bean
-    CommandLineRunner initDatabase(UserRepository repository) {
-        if(repository.findAll().size()< 1) {
-            return args -> {
-                try {
-                    repository.save(new User(null, "José Firmino", "jose@email.com", "565.378.540-75", 54));
-                    repository.save(new User(null, "Maria Aparecida", "maria@email.com", "791.756.260-39", 32));
-                    repository.save(new User(null, "João Vicente", "joao@email.com", "557.593.080-76", 60));
-                    repository.save(new User(null, "Francisco Joaquim", "francisco@email.com", "242.959.900-78", 22));
-                    repository.save(new User(null, "Juliana Silba", "juliana@email.com", "646.426.730-24", 54));
-
-                    log.info("Registros iniciais inseridos no banco de dados." );
-                } catch (Exception e) {
-                    log.info("Erro ao iniciar registros no banco de dados." );
+    static final String SEED_STEP = "users.seed";
+
+    @Bean
+    CommandLineRunner initDatabase(UserRepository repository, UserService userService, ApplicationStartup applicationStartup) {
+        return args -> {
+            StartupStep step = applicationStartup.start(SEED_STEP);
+
+            try {
+                if (repository.existsByIdNotNull()) {
+                    step.tag("inserted", "0");
+                    log.info("Registros já inseridos no banco de dados");
+                    return;
                 }
-            };
-        }
-        else
-            return args -> {
-                log.info("Registros já inseridos no banco de dados");
-            };
-    }
-
 
-
-
-}
\ No newline at end of file
+                List<User> users = List.of(
+                        new User(null, "José Firmino", "jose@email.com", 56537854075L, 54, null),
+                        new User(null, "Maria Aparecida", "maria@email.com", 79175626039L, 32, null),
+                        new User(null, "João Vicente", "joao@email.com", 55759308076L, 60, null),
+                        new User(null, "Francisco Joaquim", "francisco@email.com", 24295990078L, 22, null),
+                        new User(null, "Juliana Silba", "juliana@email.com", 64642673024L, 54, null));
+
+                userService.insertAll(users);
+
+                step.tag("inserted", String.valueOf(users.size()));
+                log.info("Registros iniciais inseridos no banco de dados.");
+            } catch (RuntimeException e) {
+                log.error("Erro ao iniciar registros no banco de dados.", e);
+            } finally {
+                step.end();
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.userapi.configs;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Respostas na tabela tb_idempotency_keys, compartilhada entre as instâncias. A reserva é a
+ * inserção da chave sem resposta, válida por users.idempotency.jdbc.lease para que a chave de uma
+ * instância que caiu no meio da requisição volte a ficar disponível. Quem chega com uma chave
+ * reservada consulta a tabela a cada users.idempotency.jdbc.poll-interval até a resposta ser gravada.
+ */
+@Log4j2
+class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration pollInterval;
+
+    JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lease, Duration pollInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public IdempotentResponse acquire(String key, Duration wait) throws TimeoutException, InterruptedException {
+
+        long deadline = System.nanoTime() + wait.toNanos();
+
+        while (true) {
+            long now = System.currentTimeMillis();
+
+            try {
+                jdbcTemplate.update("insert into tb_idempotency_keys (id, expires_at) values (?, ?)",
+                        key, now + lease.toMillis());
+                return null;
+            } catch (DuplicateKeyException ex) {
+                // Chave já reservada ou respondida
+            }
+
+            List<StoredKey> stored = jdbcTemplate.query(
+                    "select fingerprint, status, content_type, etag, location, body, expires_at from tb_idempotency_keys where id = ?",
+                    (rs, row) -> new StoredKey(
+                            rs.getObject("status") == null ? null : new IdempotentResponse(
+                                    rs.getString("fingerprint"),
+                                    rs.getInt("status"),
+                                    rs.getString("content_type"),
+                                    rs.getString("etag"),
+                                    rs.getString("location"),
+                                    rs.getBytes("body")),
+                            rs.getLong("expires_at")),
+                    key);
+
+            if (stored.isEmpty()) {
+                continue;
+            }
+
+            if (stored.get(0).expiresAt <= now) {
+                jdbcTemplate.update("delete from tb_idempotency_keys where id = ? and expires_at <= ?", key, now);
+                continue;
+            }
+
+            if (stored.get(0).response != null) {
+                return stored.get(0).response;
+            }
+
+            if (System.nanoTime() >= deadline) {
+                throw new TimeoutException();
+            }
+
+            Thread.sleep(pollInterval.toMillis());
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+
+        jdbcTemplate.update("update tb_idempotency_keys set fingerprint = ?, status = ?, content_type = ?, etag = ?,"
+                        + " location = ?, body = ?, expires_at = ? where id = ?",
+                response.getFingerprint(), response.getStatus(), response.getContentType(), response.getEtag(),
+                response.getLocation(), response.getBody(), System.currentTimeMillis() + ttl.toMillis(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from tb_idempotency_keys where id = ? and status is null", key);
+    }
+
+    @Scheduled(fixedDelayString = "${users.idempotency.jdbc.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+
+        int deleted = jdbcTemplate.update("delete from tb_idempotency_keys where expires_at <= ?", System.currentTimeMillis());
+
+        if (deleted > 0) {
+            log.info("{} chaves de idempotência expiradas removidas", deleted);
+        }
+    }
+
+    private static final class StoredKey {
+        private final IdempotentResponse response;
+        private final long expiresAt;
+
+        private StoredKey(IdempotentResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
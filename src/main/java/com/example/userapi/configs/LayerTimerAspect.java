@@ -0,0 +1,136 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.ConstraintViolationException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo de cada chamada nas camadas de controller, serviço e repositório no timer
+ * users.layer.duration, com as tags layer, operation e outcome. Os histogramas e os limites de
+ * SLO são configurados em management.metrics.distribution para o prefixo users.layer.
+ */
+@Aspect
+@Component
+class LayerTimerAspect {
+    static final String TIMER_NAME = "users.layer.duration";
+
+    enum Outcome {
+        SUCCESS, BUSINESS_ERROR, NOT_FOUND, ERROR;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    LayerTimerAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.example.userapi.api.controller..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "controller", joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(* com.example.userapi.service.UserService.*(..))")
+    public Object timeUserService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service", "UserService");
+    }
+
+    @Around("execution(* com.example.userapi.service.UserImportService.*(..))")
+    public Object timeUserImportService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service", "UserImportService");
+    }
+
+    // Os métodos herdados do Spring Data são declarados em CrudRepository e afins: a operação
+    // leva o nome do repositório da aplicação para que todas fiquem agrupadas
+    @Around("this(com.example.userapi.model.repository.UserRepository) && execution(public * *(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository", "UserRepository");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer, String type) throws Throwable {
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+
+        try {
+            Object result = joinPoint.proceed();
+            outcome = outcome(result);
+            return result;
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            timer(method, layer, type, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Registra o timer de cada resultado apenas quando ele ocorre, para não publicar histogramas
+     * vazios de resultados que a operação nunca teve.
+     */
+    private Timer timer(Method method, String layer, String type, Outcome outcome) {
+
+        Timer[] outcomes = timers.computeIfAbsent(method, key -> new Timer[Outcome.values().length]);
+        Timer timer = outcomes[outcome.ordinal()];
+
+        if (timer == null) {
+            timer = Timer.builder(TIMER_NAME)
+                    .description("Tempo das operações por camada da aplicação")
+                    .tag("layer", layer)
+                    .tag("operation", type + "." + method.getName())
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry);
+            outcomes[outcome.ordinal()] = timer;
+        }
+
+        return timer;
+    }
+
+    static Outcome outcome(Object result) {
+
+        if (result instanceof Optional && ((Optional<?>) result).isEmpty()) {
+            return Outcome.NOT_FOUND;
+        }
+
+        if (result instanceof ResponseEntity && ((ResponseEntity<?>) result).getStatusCode() == HttpStatus.NOT_FOUND) {
+            return Outcome.NOT_FOUND;
+        }
+
+        return Outcome.SUCCESS;
+    }
+
+    static Outcome outcome(Throwable ex) {
+
+        if (ex instanceof ResponseStatusException && ((ResponseStatusException) ex).getStatus() == HttpStatus.NOT_FOUND) {
+            return Outcome.NOT_FOUND;
+        }
+
+        if (ex instanceof BusinessException || ex instanceof PreconditionFailedException
+                || ex instanceof OptimisticLockingFailureException || ex instanceof ConstraintViolationException) {
+            return Outcome.BUSINESS_ERROR;
+        }
+
+        return Outcome.ERROR;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.userapi.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Respostas em memória, limitadas pelo tamanho total dos corpos e descartadas após
+ * users.idempotency.ttl. As requisições em andamento ficam fora do cache, para que nunca sejam
+ * descartadas, e quem chega com a mesma chave aguarda a conclusão delas.
+ */
+class LocalIdempotencyStore implements IdempotencyStore {
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<String, IdempotentResponse> responses;
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    LocalIdempotencyStore(MeterRegistry meterRegistry, Duration ttl, DataSize maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, IdempotentResponse>weigher((key, response) -> ENTRY_OVERHEAD + key.length() + response.getBody().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "users.idempotency");
+    }
+
+    @Override
+    public IdempotentResponse acquire(String key, Duration wait) throws TimeoutException, InterruptedException {
+
+        long deadline = System.nanoTime() + wait.toNanos();
+
+        while (true) {
+            IdempotentResponse response = responses.getIfPresent(key);
+
+            if (response != null) {
+                return response;
+            }
+
+            CompletableFuture<IdempotentResponse> reservation = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, reservation);
+
+            if (running == null) {
+                // A requisição anterior pode ter terminado entre a consulta ao cache e a reserva
+                response = responses.getIfPresent(key);
+
+                if (response != null) {
+                    inFlight.remove(key, reservation);
+                    reservation.complete(response);
+                }
+
+                return response;
+            }
+
+            try {
+                response = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException ex) {
+                response = null;
+            }
+
+            // Sem resposta a requisição anterior foi liberada e a chave pode ser reservada de novo
+            if (response != null) {
+                return response;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+
+        responses.put(key, response);
+
+        CompletableFuture<IdempotentResponse> reservation = inFlight.remove(key);
+
+        if (reservation != null) {
+            reservation.complete(response);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+
+        CompletableFuture<IdempotentResponse> reservation = inFlight.remove(key);
+
+        if (reservation != null) {
+            reservation.complete(null);
+        }
+    }
+}
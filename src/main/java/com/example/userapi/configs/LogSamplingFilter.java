@@ -0,0 +1,47 @@
+package com.example.userapi.configs;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteia uma vez por requisição se ela faz parte da amostra de logs definida em
+ * users.logging.sample-rate. As requisições fora da amostra são marcadas no ThreadContext e o
+ * filtro do log4j2.xml descarta seus eventos abaixo de WARN, inclusive os comandos SQL, antes
+ * mesmo de a mensagem ser formatada.
+ */
+@Component
+class LogSamplingFilter extends OncePerRequestFilter {
+    static final String SAMPLED_KEY = "sampled";
+
+    private final double sampleRate;
+
+    LogSamplingFilter(@Value("${users.logging.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ThreadContext.put(SAMPLED_KEY, "false");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ThreadContext.remove(SAMPLED_KEY);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.api.handler.UserHandler;
+import com.example.userapi.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Caminho de leitura reativo, habilitado pelo profile "reactive": as consultas de /users rodam
+ * sobre R2DBC em um servidor Netty próprio, na porta users.reactive.port, ao lado do Tomcat que
+ * continua atendendo as escritas. A configuração do R2DBC é feita aqui, e não pela
+ * autoconfiguração, para não registrar um segundo gerenciador de transações ao lado do JPA.
+ */
+@Configuration
+@Profile("reactive")
+@Log4j2
+class ReactiveConfiguration {
+
+    /**
+     * A ConnectionFactory não é exposta como bean: a autoconfiguração do DataSource deixa de
+     * criar o pool JDBC quando encontra uma, e o JPA continua necessário para as escritas.
+     */
+    @Bean
+    DatabaseClient databaseClient(@Value("${spring.r2dbc.url}") String url,
+                                  @Value("${spring.r2dbc.username:}") String username,
+                                  @Value("${spring.r2dbc.password:}") String password) {
+
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> userRoutes(UserHandler userHandler,
+                                              @Value("${users.reactive.base-path:/api}") String basePath) {
+
+        return RouterFunctions.route()
+                .path(basePath + "/users", builder -> builder
+                        .GET("/export", userHandler::export)
+                        .GET("/{id}", userHandler::getById)
+                        .GET("", userHandler::find))
+                .onError(BusinessException.class, userHandler::handleBusinessException)
+                .build();
+    }
+
+    @Bean(destroyMethod = "disposeNow")
+    DisposableServer reactiveServer(RouterFunction<ServerResponse> userRoutes, ObjectMapper objectMapper,
+                                    @Value("${users.reactive.port:8086}") int port) {
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(userRoutes, strategies));
+
+        DisposableServer server = HttpServer.create()
+                .port(port)
+                .handle(adapter)
+                .bindNow();
+
+        log.info("Leituras reativas de usuários disponíveis na porta {}", server.port());
+
+        return server;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.userapi.configs;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tempo gasto em cada fase da inicialização, lido da linha do tempo do {@link BufferingApplicationStartup}
+ * sem consumi-la, comparado com o tempo alvo definido em users.startup.target. As fases se sobrepõem:
+ * a criação do EntityManagerFactory inclui o pool de conexões e as migrações do Flyway.
+ */
+@Component
+@Endpoint(id = "startupphases")
+@Log4j2
+public class StartupPhasesEndpoint {
+    private static final Map<String, Predicate<StartupStep>> PHASES = new LinkedHashMap<>();
+
+    static {
+        PHASES.put("contextRefresh", step -> step.getName().equals("spring.context.refresh"));
+        PHASES.put("flywayMigration", bean("flywayInitializer"));
+        PHASES.put("jpaBootstrap", bean("entityManagerFactory"));
+        PHASES.put("webServer", step -> step.getName().equals("spring.boot.webserver.create"));
+        PHASES.put("seeding", step -> step.getName().equals(InitiateDatabaseRecords.SEED_STEP));
+    }
+
+    private final ApplicationStartup applicationStartup;
+    private final Duration target;
+    private volatile Duration ready;
+
+    public StartupPhasesEndpoint(ApplicationStartup applicationStartup,
+                                 @Value("${users.startup.target:PT30S}") Duration target) {
+        this.applicationStartup = applicationStartup;
+        this.target = target;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+
+        ready = event.getTimeTaken();
+
+        if (ready != null && ready.compareTo(target) > 0) {
+            log.warn("Inicialização levou {} ms, acima do alvo de {} ms: {}",
+                    ready.toMillis(), target.toMillis(), phases());
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetMs", target.toMillis());
+        report.put("totalMs", ready == null ? null : ready.toMillis());
+        report.put("withinTarget", ready == null ? null : ready.compareTo(target) <= 0);
+        report.put("phases", phases());
+
+        return report;
+    }
+
+    /**
+     * Duração em milissegundos de cada fase registrada; fases ausentes da linha do tempo são omitidas.
+     */
+    Map<String, Long> phases() {
+
+        Map<String, Long> phases = new LinkedHashMap<>();
+
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            return phases;
+        }
+
+        StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+
+        PHASES.forEach((phase, matcher) -> timeline.getEvents().stream()
+                .filter(event -> matcher.test(event.getStartupStep()))
+                .findFirst()
+                .ifPresent(event -> phases.put(phase, event.getDuration().toMillis())));
+
+        return phases;
+    }
+
+    /**
+     * Instanciação do bean, que aparece com o prefixo de FactoryBean quando é criado por uma.
+     */
+    private static Predicate<StartupStep> bean(String beanName) {
+        return step -> step.getName().equals("spring.beans.instantiate")
+                && StreamSupport.stream(step.getTags().spliterator(), false)
+                .anyMatch(tag -> tag.getKey().equals("beanName")
+                        && (tag.getValue().equals(beanName)
+                        || tag.getValue().equals(BeanFactory.FACTORY_BEAN_PREFIX + beanName)));
+    }
+}
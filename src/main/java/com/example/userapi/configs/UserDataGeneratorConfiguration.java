@@ -0,0 +1,97 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.UserDataGenerator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profile "data-generator": insere users.generator.count usuários sintéticos a partir do índice
+ * users.generator.offset, em lotes de users.generator.chunk-size gravados em paralelo por
+ * users.generator.threads threads, e encerra a aplicação ao terminar quando
+ * users.generator.exit-on-completion é verdadeiro. A mesma semente gera sempre os mesmos usuários.
+ */
+@Configuration
+@Profile("data-generator")
+@Log4j2
+class UserDataGeneratorConfiguration {
+
+    @Bean
+    CommandLineRunner generateUsers(UserRepository repository, ConfigurableApplicationContext context,
+                                    @Value("${users.generator.count:100000}") long count,
+                                    @Value("${users.generator.offset:0}") long offset,
+                                    @Value("${users.generator.seed:42}") long seed,
+                                    @Value("${users.generator.threads:4}") int threads,
+                                    @Value("${users.generator.chunk-size:5000}") int chunkSize,
+                                    @Value("${users.generator.exit-on-completion:true}") boolean exitOnCompletion) {
+        return args -> {
+            generate(repository, new UserDataGenerator(seed), offset, count, threads, chunkSize);
+
+            if (exitOnCompletion) {
+                System.exit(SpringApplication.exit(context));
+            }
+        };
+    }
+
+    static void generate(UserRepository repository, UserDataGenerator generator,
+                         long offset, long count, int threads, int chunkSize) throws InterruptedException {
+
+        if (offset < 0 || count < 1 || offset + count > UserDataGenerator.MAX_USERS) {
+            throw new IllegalStateException("Intervalo de usuários a gerar inválido: offset " + offset + ", quantidade " + count);
+        }
+
+        log.info("Gerando {} usuários a partir do índice {} com {} threads em lotes de {}", count, offset, threads, chunkSize);
+
+        long start = System.nanoTime();
+        long end = offset + count;
+        long step = Math.max(1, count / 10);
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("users-generator-"));
+        List<Future<?>> chunks = new ArrayList<>();
+
+        try {
+            for (long from = offset; from < end; from += chunkSize) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(end, from + chunkSize);
+
+                chunks.add(executor.submit(() -> {
+                    repository.insertAll(generator.users(chunkStart, chunkEnd));
+
+                    long before = inserted.getAndAdd(chunkEnd - chunkStart);
+
+                    if (before / step != (before + chunkEnd - chunkStart) / step) {
+                        log.info("{} de {} usuários gerados", before + chunkEnd - chunkStart, count);
+                    }
+                }));
+            }
+
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Erro ao gerar usuários, " + inserted.get() + " foram inseridos", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        log.info("{} usuários gerados em {} ms ({} usuários/s)", count, millis, count * 1000 / millis);
+    }
+}
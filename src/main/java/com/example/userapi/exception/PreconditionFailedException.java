@@ -0,0 +1,8 @@
+package com.example.userapi.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String s) {
+        super(s);
+    }
+
+}
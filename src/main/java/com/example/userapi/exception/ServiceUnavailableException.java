@@ -0,0 +1,8 @@
+package com.example.userapi.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String s) {
+        super(s);
+    }
+
+}
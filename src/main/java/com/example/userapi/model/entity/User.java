@@ -1,27 +1,45 @@
 package com.example.userapi.model.entity;
 
-import com.example.userapi.api.annotation.CPF;
+import com.example.userapi.api.serializer.CPFSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.io.Serializable;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name="TB_USERS")
+@Table(name="TB_USERS", uniqueConstraints = {
+        @UniqueConstraint(name = User.CPF_CONSTRAINT, columnNames = "cpf"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class User implements Serializable {
 
     private static final long serialVersionUID = 2450385951771325613L;
 
+    public static final String CPF_CONSTRAINT = "UK_USERS_CPF";
+    public static final String EMAIL_CONSTRAINT = "UK_USERS_EMAIL";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_sequence")
+    @GenericGenerator(
+            name = "user_sequence",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "sq_users"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            }
+    )
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -33,13 +51,13 @@ public class User implements Serializable {
     @NotBlank(message = "O email é obrigatorio!")
     @Email(message = "O email informado é inválido!")
     @Size(max = 50, message = "O email não pode ultrapassar mais que 50 catacteres!" )
-    @Column(name = "email", unique = true, nullable = false, length = 50)
+    @Column(name = "email", nullable = false, length = 50)
     private String email;
 
-    @Column(name = "cpf", unique = true, nullable = false, length = 14)
-    @NotBlank(message = "O cpf é obrigatório!")
-    @CPF
-    private String cpf;
+    @Column(name = "cpf", nullable = false)
+    @NotNull(message = "O cpf é obrigatório!")
+    @JsonSerialize(using = CPFSerializer.class)
+    private Long cpf;
 
     @Column(name = "age", nullable = false )
     @NotNull(message = "A idade é obrigatória!")
@@ -47,4 +65,8 @@ public class User implements Serializable {
     @Min(value = 18, message = "A idade do usuário não pode ser menor que 18!")
     @Max(value = 150, message = "A idade do usuário não pode ser maior que 150!")
     private Integer age;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
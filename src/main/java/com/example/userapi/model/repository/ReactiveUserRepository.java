@@ -0,0 +1,116 @@
+package com.example.userapi.model.repository;
+
+import com.example.userapi.model.entity.User;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Leituras de usuários via R2DBC, sem bloquear threads enquanto aguardam a base. Os filtros
+ * seguem a mesma semântica da consulta por exemplo do {@link UserRepository}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+    private static final String SELECT = "select id, name, email, cpf, age, version from tb_users";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<User> findById(Long id) {
+
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Busca em ordem de id os usuários que atendem ao filtro, após afterId quando informado e
+     * limitados a limit quando informado.
+     */
+    public Flux<User> findAll(User filter, Long afterId, Integer limit) {
+
+        StringBuilder sql = new StringBuilder(SELECT).append(" where 1 = 1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (filter.getName() != null) {
+            sql.append(" and lower(name) like :name");
+            parameters.put("name", contains(filter.getName()));
+        }
+
+        if (filter.getEmail() != null) {
+            sql.append(" and lower(email) like :email");
+            parameters.put("email", contains(filter.getEmail()));
+        }
+
+        if (filter.getCpf() != null) {
+            sql.append(" and cpf = :cpf");
+            parameters.put("cpf", filter.getCpf());
+        }
+
+        if (filter.getAge() != null) {
+            sql.append(" and age = :age");
+            parameters.put("age", filter.getAge());
+        }
+
+        if (afterId != null) {
+            sql.append(" and id > :afterId");
+            parameters.put("afterId", afterId);
+        }
+
+        sql.append(" order by id");
+
+        if (limit != null) {
+            sql.append(" limit :limit");
+            parameters.put("limit", limit);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return spec.map(ReactiveUserRepository::toUser).all();
+    }
+
+    public Flux<User> streamAll() {
+
+        return databaseClient.sql(SELECT + " order by id")
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    private static String contains(String value) {
+
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+
+        return "%" + escaped + "%";
+    }
+
+    private static User toUser(Row row) {
+
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .cpf(row.get("cpf", Long.class))
+                .age(row.get("age", Integer.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -2,12 +2,43 @@ package com.example.userapi.model.repository;
 
 import com.example.userapi.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    boolean existsByCpf(Long cpf);
 
-    boolean existsByCpf(String cpf);
+    Optional<User> findByCpf(Long cpf);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Verifica se há algum usuário com uma consulta limitada a uma linha, sem contar a tabela.
+     */
+    boolean existsByIdNotNull();
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int removeById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id and u.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    @Query("select u.cpf from User u where u.cpf in :cpfs")
+    List<Long> findExistingCpfs(@Param("cpfs") Collection<Long> cpfs);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
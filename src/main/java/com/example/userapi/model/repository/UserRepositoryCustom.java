@@ -0,0 +1,26 @@
+package com.example.userapi.model.repository;
+
+import com.example.userapi.model.entity.User;
+import org.springframework.data.domain.Example;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+
+    List<User> findAllAfter(Example<User> example, Long afterId, int limit);
+
+    List<User> findAllIn(Example<User> example, Collection<Long> ids);
+
+    List<Object[]> findFields(Example<User> example, List<String> fields, Collection<Long> ids, Long afterId, int limit);
+
+    void streamAll(Consumer<User> action);
+
+    void streamKeys(BiConsumer<Long, String> action);
+
+    void insertAll(List<User> users);
+
+    int updateFields(Long id, Long version, User changes);
+}
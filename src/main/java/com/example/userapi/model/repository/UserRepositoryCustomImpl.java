@@ -0,0 +1,228 @@
+package com.example.userapi.model.repository;
+
+import com.example.userapi.model.entity.User;
+import org.springframework.data.domain.Example;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    public static final int STREAM_FETCH_SIZE = 1000;
+    public static final int INSERT_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findAllAfter(Example<User> example, Long afterId, int limit) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = builder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        Predicate byExample = QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+        if (byExample != null) {
+            predicates.add(byExample);
+        }
+
+        // O cursor vai como parâmetro: como literal, cada página geraria um comando SQL diferente
+        ParameterExpression<Long> after = builder.parameter(Long.class);
+
+        if (afterId != null) {
+            predicates.add(builder.greaterThan(root.get("id"), after));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(root.get("id")));
+
+        TypedQuery<User> typedQuery = entityManager.createQuery(query).setMaxResults(limit);
+
+        if (afterId != null) {
+            typedQuery.setParameter(after, afterId);
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Busca, em ordem de id, os usuários entre os ids informados que atendem ao exemplo.
+     */
+    @Override
+    public List<User> findAllIn(Example<User> example, Collection<Long> ids) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = builder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        Predicate byIds = root.get("id").in(ids);
+        Predicate byExample = QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+
+        query.select(root)
+                .where(byExample != null ? builder.and(byIds, byExample) : byIds)
+                .orderBy(builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Busca apenas os campos informados dos usuários que atendem ao exemplo, em ordem de id, como
+     * uma projeção em tuplas: as demais colunas não são selecionadas e nenhuma entidade é
+     * gerenciada. Os filtros por ids, por id posterior e o limite são opcionais.
+     */
+    @Override
+    public List<Object[]> findFields(Example<User> example, List<String> fields, Collection<Long> ids, Long afterId, int limit) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        Predicate byExample = example != null ? QueryByExamplePredicateBuilder.getPredicate(root, builder, example) : null;
+        if (byExample != null) {
+            predicates.add(byExample);
+        }
+
+        if (ids != null) {
+            predicates.add(root.get("id").in(ids));
+        }
+
+        ParameterExpression<Long> after = builder.parameter(Long.class);
+
+        if (afterId != null) {
+            predicates.add(builder.greaterThan(root.get("id"), after));
+        }
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field));
+        }
+
+        query.multiselect(selections)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(root.get("id")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+
+        if (afterId != null) {
+            typedQuery.setParameter(after, afterId);
+        }
+
+        if (limit < Integer.MAX_VALUE) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<Object[]> rows = new ArrayList<>(tuples.size());
+
+        for (Tuple tuple : tuples) {
+            rows.add(tuple.toArray());
+        }
+
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<User> action) {
+
+        try (Stream<User> users = entityManager
+                .createQuery("select u from User u order by u.id", User.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamKeys(BiConsumer<Long, String> action) {
+
+        try (Stream<Object[]> keys = entityManager
+                .createQuery("select u.cpf, u.email from User u", Object[].class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()) {
+
+            keys.forEach(key -> action.accept((Long) key[0], (String) key[1]));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<User> users) {
+
+        for (int i = 0; i < users.size(); i++) {
+            entityManager.persist(users.get(i));
+
+            if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Atualiza apenas os campos não nulos de changes, sem carregar o usuário. Quando a versão é
+     * informada, a atualização só ocorre se ela ainda for a atual. Retorna a quantidade de linhas alteradas.
+     */
+    @Override
+    @Transactional
+    public int updateFields(Long id, Long version, User changes) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = builder.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        if (changes.getName() != null) {
+            update.set(root.<String>get("name"), changes.getName());
+        }
+
+        if (changes.getEmail() != null) {
+            update.set(root.<String>get("email"), changes.getEmail());
+        }
+
+        if (changes.getCpf() != null) {
+            update.set(root.<Long>get("cpf"), changes.getCpf());
+        }
+
+        if (changes.getAge() != null) {
+            update.set(root.<Integer>get("age"), changes.getAge());
+        }
+
+        Predicate byId = builder.equal(root.get("id"), id);
+
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L))
+                .where(version != null ? builder.and(byId, builder.equal(root.get("version"), version)) : byId);
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.userapi.service;
+
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.model.entity.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserService {
+
+    Mono<User> findById(Long userId);
+
+    Flux<User> find(User filter);
+
+    Mono<CursorPageDTO<User>> find(User filter, String after, int limit);
+
+    Flux<User> export();
+}
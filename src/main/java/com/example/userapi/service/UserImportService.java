@@ -0,0 +1,13 @@
+package com.example.userapi.service;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+
+public interface UserImportService {
+
+    ImportJobDTO start(MultipartFile file);
+
+    Optional<ImportJobDTO> findJob(String jobId);
+}
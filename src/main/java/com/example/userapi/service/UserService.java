@@ -1,22 +1,42 @@
 package com.example.userapi.service;
 
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
 import com.example.userapi.api.dto.UserDTO;
 import com.example.userapi.model.entity.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     User save(User user);
 
+    List<UserBatchResultDTO> saveAll(List<UserDTO> users);
+
+    List<UserBatchResultDTO> insertAll(List<User> users);
+
     Optional<User> findById(Long userId);
 
-    void delete(User user);
+    Optional<Map<String, Object>> findById(Long userId, List<String> fields);
+
+    Optional<User> findByCpf(String cpf);
+
+    boolean delete(Long userId, Long version);
 
-    User update(UserDTO userDTO, User user);
+    Optional<User> update(Long userId, Long version, UserDTO userDTO);
 
-    User replace(UserDTO userDTO, User user);
+    Optional<User> replace(Long userId, Long version, UserDTO userDTO);
 
     List<User> find(User filter);
+
+    List<Map<String, Object>> find(User filter, List<String> fields);
+
+    CursorPageDTO<User> find(User filter, String after, int limit);
+
+    CursorPageDTO<Map<String, Object>> find(User filter, String after, int limit, List<String> fields);
+
+    void export(Consumer<User> action);
 }
@@ -0,0 +1,94 @@
+package com.example.userapi.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Estrutura em memória derivada da tabela de usuários ({@link UserKeyFilter}, {@link UserSearchIndex},
+ * {@link UserSnapshot}), atualizada pelas escritas desta instância e substituída periodicamente por
+ * uma reconstrução a partir da base.
+ *
+ * <p>A leitura da base na reconstrução não enxerga as transações confirmadas depois de ela começar,
+ * então as escritas aplicadas enquanto ela acontece são registradas e reaplicadas sobre a nova versão
+ * antes da troca. Pelo mesmo motivo, uma escrita aplicada antes do commit é repetida após ele
+ * ({@link #nowAndAfterCommit}): se uma reconstrução começou entre as duas, a repetição entra no
+ * registro dela ou na versão que a substituiu. No {@link UserCache} a repetição descarta valores
+ * carregados por outras threads antes do commit. As escritas precisam ser idempotentes.
+ */
+final class InMemoryView<T> {
+
+    private volatile T current;
+    private List<Consumer<T>> journal;
+
+    InMemoryView(T initial) {
+        this.current = initial;
+    }
+
+    T current() {
+        return current;
+    }
+
+    synchronized void apply(Consumer<T> change) {
+
+        change.accept(current);
+
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    synchronized void startRebuild() {
+        journal = new ArrayList<>();
+    }
+
+    synchronized void finishRebuild(T rebuilt) {
+
+        if (journal != null) {
+            journal.forEach(change -> change.accept(rebuilt));
+        }
+
+        journal = null;
+        current = rebuilt;
+    }
+
+    synchronized void abortRebuild() {
+        journal = null;
+    }
+
+    /**
+     * Executa a escrita imediatamente e, dentro de uma transação, novamente após o commit.
+     */
+    static void nowAndAfterCommit(Runnable write) {
+
+        write.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            registerAfterCommit(write);
+        }
+    }
+
+    /**
+     * Executa a escrita após o commit da transação atual, ou imediatamente fora de uma transação.
+     */
+    static void afterCommit(Runnable write) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            registerAfterCommit(write);
+        } else {
+            write.run();
+        }
+    }
+
+    private static void registerAfterCommit(Runnable write) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.ReactiveUserRepository;
+import com.example.userapi.service.ReactiveUserService;
+import com.example.userapi.util.CursorUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<User> findById(Long userId) {
+
+        return userRepository.findById(userId);
+    }
+
+    @Override
+    public Flux<User> find(User filter) {
+
+        return userRepository.findAll(filter, null, null);
+    }
+
+    @Override
+    public Mono<CursorPageDTO<User>> find(User filter, String after, int limit) {
+
+        if (limit < 1 || limit > UserServiceImpl.MAX_PAGE_SIZE) {
+            return Mono.error(new BusinessException("O limite deve estar entre 1 e " + UserServiceImpl.MAX_PAGE_SIZE + "!"));
+        }
+
+        Long afterId;
+        try {
+            afterId = after != null ? CursorUtils.decode(after) : null;
+        } catch (BusinessException ex) {
+            return Mono.error(ex);
+        }
+
+        return userRepository.findAll(filter, afterId, limit + 1)
+                .collectList()
+                .map(users -> page(users, limit));
+    }
+
+    @Override
+    public Flux<User> export() {
+
+        return userRepository.streamAll();
+    }
+
+    private static CursorPageDTO<User> page(List<User> users, int limit) {
+
+        if (users.size() <= limit) {
+            return new CursorPageDTO<>(users, null);
+        }
+
+        List<User> content = users.subList(0, limit);
+
+        return new CursorPageDTO<>(content, CursorUtils.encode(content.get(limit - 1).getId()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache dos usuários por id, incluindo os ids não encontrados por um período curto.
+ * Os usuários são copiados ao entrar e ao sair do cache, para que alterações feitas
+ * por quem os obteve não afetem a cópia armazenada.
+ */
+@Component
+public class UserCache {
+    static final long MAXIMUM_SIZE = 10_000;
+    static final Duration FOUND_TTL = Duration.ofMinutes(10);
+    static final Duration NOT_FOUND_TTL = Duration.ofSeconds(30);
+
+    private final Cache<Long, Optional<User>> cache;
+
+    public UserCache(MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfter(new Expiry<Long, Optional<User>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<User> user, long currentTime) {
+                        return user.isPresent() ? FOUND_TTL.toNanos() : NOT_FOUND_TTL.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<User> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<User> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.by.id");
+    }
+
+    public Optional<User> get(Long id, Function<Long, Optional<User>> loader) {
+        return cache.get(id, key -> loader.apply(key).map(UserCache::copy)).map(UserCache::copy);
+    }
+
+    public void evict(Long id) {
+        evict(List.of(id));
+    }
+
+    public void evict(Collection<Long> ids) {
+        InMemoryView.nowAndAfterCommit(() -> cache.invalidateAll(ids));
+    }
+
+    private static User copy(User user) {
+        return user.toBuilder().build();
+    }
+}
@@ -0,0 +1,516 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.util.TextUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Usuários guardados em colunas de tipos primitivos, ordenados por id: ids, cpfs e versões em
+ * arrays de long, idade em byte e nome e email em UTF-8, concatenados em um único array de bytes
+ * por campo e localizados por offset e tamanho. Linhas removidas são apenas marcadas; valores
+ * substituídos deixam bytes sem uso, descartados quando passam da metade do array.
+ */
+class UserColumns {
+    static final int MAGIC = 0x55534E50;
+    static final int FORMAT_VERSION = 2;
+    static final int FIXED_BYTES_PER_ROW = 8 + 8 + 8 + 1 + (4 + 2) * 2;
+
+    private static final int HEADER_BYTES = 4 * 5 + 8 * 2;
+    private static final int INITIAL_ROWS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] cpfs;
+    private long[] versions;
+    private byte[] ages;
+    private long[] deleted;
+    private int rows;
+    private int live;
+    private final Strings names;
+    private final Strings emails;
+    private volatile long syncedAt;
+    private volatile long syncedUpTo;
+
+    UserColumns() {
+        this(INITIAL_ROWS, INITIAL_ROWS * 16, INITIAL_ROWS * 24);
+    }
+
+    private UserColumns(int rows, int nameBytes, int emailBytes) {
+        this.ids = new long[rows];
+        this.cpfs = new long[rows];
+        this.versions = new long[rows];
+        this.ages = new byte[rows];
+        this.deleted = new long[(rows + 63) / 64];
+        this.names = new Strings(rows, nameBytes);
+        this.emails = new Strings(rows, emailBytes);
+    }
+
+    /**
+     * Insere ou substitui o usuário, a menos que a linha existente já tenha uma versão mais nova.
+     */
+    void put(User user) {
+
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, rows, user.getId());
+
+            if (row >= 0) {
+                if (isDeleted(row) || user.getVersion() != null && versions[row] > user.getVersion()) {
+                    return;
+                }
+            } else {
+                row = insertRow(-row - 1, user.getId());
+                live++;
+            }
+
+            cpfs[row] = user.getCpf();
+            versions[row] = user.getVersion() != null ? user.getVersion() : 0;
+            ages[row] = (byte) user.getAge().intValue();
+            names.set(row, user.getName(), rows);
+            emails.set(row, user.getEmail(), rows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, rows, id);
+
+            if (row >= 0 && !isDeleted(row)) {
+                deleted[row >>> 6] |= 1L << row;
+                live--;
+                names.release(row);
+                emails.release(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca, em ordem de id e após afterId, até limit usuários que atendem ao filtro com a mesma
+     * semântica da consulta por exemplo: igualdade nos campos numéricos e nome e email contendo
+     * o termo, sem diferenciar maiúsculas e minúsculas.
+     */
+    List<User> find(User filter, Long afterId, int limit) {
+
+        Matcher name = Matcher.of(filter.getName());
+        Matcher email = Matcher.of(filter.getEmail());
+
+        lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>();
+
+            int row = 0;
+            if (afterId != null) {
+                row = Arrays.binarySearch(ids, 0, rows, afterId + 1);
+                row = row < 0 ? -row - 1 : row;
+            }
+
+            for (; row < rows && users.size() < limit; row++) {
+                if (isDeleted(row)
+                        || filter.getId() != null && ids[row] != filter.getId()
+                        || filter.getCpf() != null && cpfs[row] != filter.getCpf()
+                        || filter.getAge() != null && (ages[row] & 0xFF) != filter.getAge()
+                        || filter.getVersion() != null && versions[row] != filter.getVersion()
+                        || name != null && !name.matches(names, row)
+                        || email != null && !email.matches(emails, row)) {
+                    continue;
+                }
+
+                users.add(User.builder()
+                        .id(ids[row])
+                        .cpf(cpfs[row])
+                        .age(ages[row] & 0xFF)
+                        .version(versions[row])
+                        .name(names.get(row))
+                        .email(emails.get(row))
+                        .build());
+            }
+
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return live;
+    }
+
+    /**
+     * Momento, em milissegundos desde a época, em que começou a leitura completa da base que deu
+     * origem a estas colunas. Escritas feitas fora desta instância depois dele podem estar ausentes.
+     */
+    long syncedAt() {
+        return syncedAt;
+    }
+
+    /**
+     * Maior id lido da base: os ids acima dele podem ter sido inseridos sem passar por esta instância.
+     */
+    long syncedUpTo() {
+        return syncedUpTo;
+    }
+
+    void synced(long at, long upTo) {
+        this.syncedAt = at;
+        this.syncedUpTo = upTo;
+    }
+
+    void syncedUpTo(long upTo) {
+        this.syncedUpTo = Math.max(syncedUpTo, upTo);
+    }
+
+    /**
+     * Bytes ocupados pelas linhas válidas, sem contar a folga dos arrays e os bytes sem uso.
+     */
+    long usedBytes() {
+
+        lock.readLock().lock();
+        try {
+            return (long) live * FIXED_BYTES_PER_ROW + names.usedBytes() + emails.usedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Grava as linhas válidas em um arquivo mapeado em memória, substituindo o arquivo anterior
+     * apenas quando a gravação termina.
+     */
+    void write(Path path) throws IOException {
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        lock.readLock().lock();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            long nameBytes = names.usedBytes();
+            long emailBytes = emails.usedBytes();
+            long size = HEADER_BYTES + (long) live * (8 + 8 + 8 + 1 + 4 + 4) + nameBytes + emailBytes;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(live).putInt((int) nameBytes).putInt((int) emailBytes)
+                    .putLong(syncedAt).putLong(syncedUpTo);
+
+            for (int row = 0; row < rows; row++) {
+                if (!isDeleted(row)) {
+                    buffer.putLong(ids[row]);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (!isDeleted(row)) {
+                    buffer.putLong(cpfs[row]);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (!isDeleted(row)) {
+                    buffer.putLong(versions[row]);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (!isDeleted(row)) {
+                    buffer.put(ages[row]);
+                }
+            }
+            names.write(buffer, this);
+            emails.write(buffer, this);
+
+            buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static UserColumns read(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Formato de snapshot de usuários desconhecido: " + path);
+            }
+
+            int rows = buffer.getInt();
+            int nameBytes = buffer.getInt();
+            int emailBytes = buffer.getInt();
+
+            UserColumns columns = new UserColumns(Math.max(rows, 1), Math.max(nameBytes, 1), Math.max(emailBytes, 1));
+            columns.synced(buffer.getLong(), buffer.getLong());
+
+            buffer.asLongBuffer().get(columns.ids, 0, rows);
+            buffer.position(buffer.position() + rows * 8);
+            buffer.asLongBuffer().get(columns.cpfs, 0, rows);
+            buffer.position(buffer.position() + rows * 8);
+            buffer.asLongBuffer().get(columns.versions, 0, rows);
+            buffer.position(buffer.position() + rows * 8);
+            buffer.get(columns.ages, 0, rows);
+            columns.names.read(buffer, rows, nameBytes);
+            columns.emails.read(buffer, rows, emailBytes);
+
+            columns.rows = rows;
+            columns.live = rows;
+
+            return columns;
+        }
+    }
+
+    private boolean isDeleted(int row) {
+        return (deleted[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private int insertRow(int row, long id) {
+
+        if (rows == ids.length) {
+            int capacity = rows + (rows >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            cpfs = Arrays.copyOf(cpfs, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            deleted = Arrays.copyOf(deleted, (capacity + 63) / 64);
+            names.grow(capacity);
+            emails.grow(capacity);
+        }
+
+        // Ids gerados por sequência chegam quase sempre em ordem; só os demais deslocam as linhas
+        if (row < rows) {
+            System.arraycopy(ids, row, ids, row + 1, rows - row);
+            System.arraycopy(cpfs, row, cpfs, row + 1, rows - row);
+            System.arraycopy(versions, row, versions, row + 1, rows - row);
+            System.arraycopy(ages, row, ages, row + 1, rows - row);
+            names.shift(row, rows);
+            emails.shift(row, rows);
+            shiftDeleted(row);
+        }
+
+        ids[row] = id;
+        rows++;
+
+        return row;
+    }
+
+    private void shiftDeleted(int from) {
+
+        for (int row = rows; row > from; row--) {
+            if (isDeleted(row - 1)) {
+                deleted[row >>> 6] |= 1L << row;
+            } else {
+                deleted[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        deleted[from >>> 6] &= ~(1L << from);
+    }
+
+    /**
+     * Strings de um campo em UTF-8: offset e tamanho de cada linha em um único array de bytes.
+     */
+    private static final class Strings {
+        private int[] offsets;
+        private short[] lengths;
+        private byte[] bytes;
+        private int end;
+        private int unused;
+
+        private Strings(int rows, int bytes) {
+            this.offsets = new int[rows];
+            this.lengths = new short[rows];
+            this.bytes = new byte[bytes];
+        }
+
+        private String get(int row) {
+            return new String(bytes, offsets[row], lengths[row], StandardCharsets.UTF_8);
+        }
+
+        private void set(int row, String value, int rows) {
+
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+            if (encoded.length <= lengths[row]) {
+                unused += lengths[row] - encoded.length;
+                System.arraycopy(encoded, 0, bytes, offsets[row], encoded.length);
+                lengths[row] = (short) encoded.length;
+                return;
+            }
+
+            unused += lengths[row];
+            lengths[row] = 0;
+
+            if (unused > end / 2) {
+                compact(rows);
+            }
+
+            if (end + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(end + encoded.length, end + (end >> 1)));
+            }
+
+            System.arraycopy(encoded, 0, bytes, end, encoded.length);
+            offsets[row] = end;
+            lengths[row] = (short) encoded.length;
+            end += encoded.length;
+        }
+
+        private void compact(int rows) {
+
+            byte[] compacted = new byte[Math.max(bytes.length / 2, end - unused)];
+            int offset = 0;
+
+            for (int row = 0; row < rows; row++) {
+                System.arraycopy(bytes, offsets[row], compacted, offset, lengths[row]);
+                offsets[row] = offset;
+                offset += lengths[row];
+            }
+
+            bytes = compacted;
+            end = offset;
+            unused = 0;
+        }
+
+        private void release(int row) {
+            unused += lengths[row];
+            lengths[row] = 0;
+        }
+
+        private long usedBytes() {
+            return end - unused;
+        }
+
+        private void grow(int capacity) {
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+
+        private void shift(int from, int rows) {
+            System.arraycopy(offsets, from, offsets, from + 1, rows - from);
+            System.arraycopy(lengths, from, lengths, from + 1, rows - from);
+            lengths[from] = 0;
+        }
+
+        /**
+         * Grava os tamanhos e os bytes das linhas válidas, já compactados.
+         */
+        private void write(ByteBuffer buffer, UserColumns columns) {
+
+            for (int row = 0; row < columns.rows; row++) {
+                if (!columns.isDeleted(row)) {
+                    buffer.putInt(lengths[row]);
+                }
+            }
+            for (int row = 0; row < columns.rows; row++) {
+                if (!columns.isDeleted(row)) {
+                    buffer.put(bytes, offsets[row], lengths[row]);
+                }
+            }
+        }
+
+        private void read(ByteBuffer buffer, int rows, int size) {
+
+            int offset = 0;
+            for (int row = 0; row < rows; row++) {
+                offsets[row] = offset;
+                lengths[row] = (short) buffer.getInt();
+                offset += lengths[row];
+            }
+
+            buffer.get(bytes, 0, size);
+            end = size;
+        }
+    }
+
+    /**
+     * Busca por substring sem diferenciar maiúsculas, minúsculas e acentos (ver {@link TextUtils#fold}).
+     * Termos em ASCII são comparados direto nos bytes em UTF-8 dos valores em ASCII; os demais
+     * valores são decodificados e normalizados.
+     */
+    private static final class Matcher {
+        private final String term;
+        private final byte[] ascii;
+
+        private Matcher(String term, byte[] ascii) {
+            this.term = term;
+            this.ascii = ascii;
+        }
+
+        private static Matcher of(String term) {
+
+            if (term == null) {
+                return null;
+            }
+
+            String folded = TextUtils.fold(term);
+
+            for (int i = 0; i < folded.length(); i++) {
+                if (folded.charAt(i) >= 0x80) {
+                    return new Matcher(folded, null);
+                }
+            }
+
+            return new Matcher(folded, folded.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private boolean matches(Strings strings, int row) {
+
+            byte[] bytes = strings.bytes;
+            int from = strings.offsets[row];
+            int to = from + strings.lengths[row];
+
+            if (ascii == null || !isAscii(bytes, from, to)) {
+                return TextUtils.fold(strings.get(row)).contains(term);
+            }
+
+            for (int start = from; start <= to - ascii.length; start++) {
+                int i = 0;
+                while (i < ascii.length && lower(bytes[start + i]) == ascii[i]) {
+                    i++;
+                }
+                if (i == ascii.length) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean isAscii(byte[] bytes, int from, int to) {
+
+            for (int i = from; i < to; i++) {
+                if (bytes[i] < 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static byte lower(byte value) {
+            return value >= 'A' && value <= 'Z' ? (byte) (value + ('a' - 'A')) : value;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import com.example.userapi.api.dto.ImportRowErrorDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class UserImportJob {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String id;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong createdRows = new AtomicLong();
+    private final AtomicLong duplicateRows = new AtomicLong();
+    private final AtomicLong invalidRows = new AtomicLong();
+    private final List<ImportRowErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile ImportJobDTO.Status status = ImportJobDTO.Status.RUNNING;
+    private volatile Instant finishedAt;
+
+    UserImportJob(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void processed(int rows) {
+        processedRows.addAndGet(rows);
+    }
+
+    void created() {
+        createdRows.incrementAndGet();
+    }
+
+    void duplicate(long line, List<String> messages) {
+        duplicateRows.incrementAndGet();
+        report(line, messages);
+    }
+
+    void invalid(long line, List<String> messages) {
+        invalidRows.incrementAndGet();
+        report(line, messages);
+    }
+
+    void complete() {
+        finish(ImportJobDTO.Status.COMPLETED);
+    }
+
+    void fail(String message) {
+        errors.add(new ImportRowErrorDTO(0, Collections.singletonList(message)));
+        finish(ImportJobDTO.Status.FAILED);
+    }
+
+    ImportJobDTO toDTO() {
+        List<ImportRowErrorDTO> reportedErrors;
+        synchronized (errors) {
+            reportedErrors = new ArrayList<>(errors);
+        }
+
+        return ImportJobDTO.builder()
+                .id(id)
+                .status(status)
+                .processedRows(processedRows.get())
+                .createdRows(createdRows.get())
+                .duplicateRows(duplicateRows.get())
+                .invalidRows(invalidRows.get())
+                .errors(reportedErrors)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private void report(long line, List<String> messages) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportRowErrorDTO(line, messages));
+        }
+    }
+
+    private void finish(ImportJobDTO.Status finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.service.UserImportService;
+import com.example.userapi.service.UserService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Log4j2
+public class UserImportServiceImpl implements UserImportService {
+    static final int CHUNK_SIZE = 1000;
+    private static final int IN_FLIGHT_CHUNKS = 8;
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+    private static final List<String> COLUMNS = List.of("name", "email", "cpf", "age");
+    private static final Future<List<ImportRow>> END_OF_FILE = CompletableFuture.completedFuture(Collections.emptyList());
+
+    private final UserService userService;
+    private final UserMapper userMapper;
+    private final Validator validator;
+    private final ExecutorService validationExecutor;
+    private final ExecutorService jobExecutor;
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportServiceImpl(UserService userService, UserMapper userMapper, Validator validator) {
+        this.userService = userService;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.validationExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new CustomizableThreadFactory("user-import-validation-"));
+        this.jobExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("user-import-"));
+    }
+
+    @Override
+    public ImportJobDTO start(MultipartFile file) {
+
+        if (file.isEmpty()) {
+            throw new BusinessException("O arquivo informado está vazio!");
+        }
+
+        Path path;
+        try {
+            path = Files.createTempFile("user-import-", ".csv");
+            file.transferTo(path);
+        } catch (IOException ex) {
+            log.error("Erro ao receber o arquivo de importação", ex);
+            throw new BusinessException("Não foi possível ler o arquivo informado!");
+        }
+
+        purgeFinishedJobs();
+
+        UserImportJob job = new UserImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+
+        jobExecutor.execute(() -> run(job, path));
+
+        log.info("Importação {} iniciada para o arquivo {}", job.getId(), file.getOriginalFilename());
+
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<ImportJobDTO> findJob(String jobId) {
+
+        return Optional.ofNullable(jobs.get(jobId)).map(UserImportJob::toDTO);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    private void run(UserImportJob job, Path path) {
+
+        BlockingQueue<Future<List<ImportRow>>> chunks = new ArrayBlockingQueue<>(IN_FLIGHT_CHUNKS);
+        Future<?> writer = jobExecutor.submit(() -> {
+            write(job, chunks);
+            return null;
+        });
+
+        try {
+            read(path, chunks, writer);
+            writer.get();
+            job.complete();
+
+            log.info("Importação {} concluída", job.getId());
+        } catch (BusinessException ex) {
+            writer.cancel(true);
+            job.fail(ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            job.fail("A importação foi interrompida!");
+        } catch (Exception ex) {
+            writer.cancel(true);
+            log.error("Erro durante a importação {}", job.getId(), ex);
+            job.fail("Erro durante a importação: " + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                log.warn("Não foi possível remover o arquivo temporário {}", path);
+            }
+        }
+    }
+
+    private void read(Path path, BlockingQueue<Future<List<ImportRow>>> chunks, Future<?> writer)
+            throws IOException, InterruptedException, ExecutionException {
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+
+            String header = reader.readLine();
+
+            if (header == null) {
+                throw new BusinessException("O arquivo informado está vazio!");
+            }
+
+            char delimiter = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+            int[] columns = columnIndexes(parseLine(header, delimiter));
+
+            long lineNumber = 1;
+            List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                chunk.add(new ImportLine(lineNumber, line));
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    enqueue(chunks, validate(chunk, columns, delimiter), writer);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                enqueue(chunks, validate(chunk, columns, delimiter), writer);
+            }
+
+            enqueue(chunks, END_OF_FILE, writer);
+        }
+    }
+
+    private Future<List<ImportRow>> validate(List<ImportLine> lines, int[] columns, char delimiter) {
+
+        return validationExecutor.submit(() -> lines.stream()
+                .map(line -> validate(line, columns, delimiter))
+                .collect(Collectors.toList()));
+    }
+
+    private ImportRow validate(ImportLine line, int[] columns, char delimiter) {
+
+        List<String> fields = parseLine(line.content, delimiter);
+
+        if (fields.size() < COLUMNS.size()) {
+            return ImportRow.invalid(line.number, Collections.singletonList("A linha não possui todas as colunas esperadas!"));
+        }
+
+        Integer age = null;
+        String rawAge = field(fields, columns[3]);
+
+        if (rawAge != null) {
+            try {
+                age = Integer.valueOf(rawAge);
+            } catch (NumberFormatException ex) {
+                return ImportRow.invalid(line.number, Collections.singletonList("A idade informada é inválida!"));
+            }
+        }
+
+        UserDTO userDTO = UserDTO.builder()
+                .name(field(fields, columns[0]))
+                .email(field(fields, columns[1]))
+                .cpf(field(fields, columns[2]))
+                .age(age)
+                .build();
+
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+
+        if (!violations.isEmpty()) {
+            return ImportRow.invalid(line.number,
+                    violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList()));
+        }
+
+        return ImportRow.valid(line.number, userMapper.toEntity(userDTO));
+    }
+
+    private void write(UserImportJob job, BlockingQueue<Future<List<ImportRow>>> chunks)
+            throws InterruptedException, ExecutionException {
+
+        Set<Long> seenCpfs = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        while (true) {
+            Future<List<ImportRow>> chunk = chunks.take();
+
+            if (chunk == END_OF_FILE) {
+                return;
+            }
+
+            List<ImportRow> rows = chunk.get();
+            List<ImportRow> accepted = new ArrayList<>(rows.size());
+
+            for (ImportRow row : rows) {
+
+                if (row.user == null) {
+                    job.invalid(row.line, row.errors);
+                    continue;
+                }
+
+                Long cpf = row.user.getCpf();
+                String email = row.user.getEmail().toLowerCase(Locale.ROOT);
+
+                if (seenCpfs.contains(cpf)) {
+                    job.duplicate(row.line, Collections.singletonList("O cpf informado está repetido no arquivo!"));
+                } else if (seenEmails.contains(email)) {
+                    job.duplicate(row.line, Collections.singletonList("O email informado está repetido no arquivo!"));
+                } else {
+                    seenCpfs.add(cpf);
+                    seenEmails.add(email);
+                    accepted.add(row);
+                }
+            }
+
+            insert(job, accepted);
+
+            job.processed(rows.size());
+        }
+    }
+
+    private void insert(UserImportJob job, List<ImportRow> rows) {
+
+        List<UserBatchResultDTO> results;
+
+        try {
+            results = userService.insertAll(rows.stream().map(row -> row.user).collect(Collectors.toList()));
+        } catch (BusinessException ex) {
+            // Violação de unicidade por uma escrita concorrente: o bloco inteiro foi desfeito, então
+            // cada linha é repetida sozinha para que só a duplicada seja rejeitada
+            log.warn("Bloco de {} usuários da importação {} desfeito, repetindo individualmente: {}",
+                    rows.size(), job.getId(), ex.getMessage());
+
+            rows.forEach(row -> insertAlone(job, row));
+            return;
+        }
+
+        for (UserBatchResultDTO result : results) {
+            record(job, rows.get(result.getIndex()), result);
+        }
+    }
+
+    private void insertAlone(UserImportJob job, ImportRow row) {
+
+        row.user.setId(null);
+        row.user.setVersion(null);
+
+        try {
+            record(job, row, userService.insertAll(List.of(row.user)).get(0));
+        } catch (BusinessException ex) {
+            job.duplicate(row.line, Collections.singletonList(ex.getMessage()));
+        }
+    }
+
+    private static void record(UserImportJob job, ImportRow row, UserBatchResultDTO result) {
+
+        if (result.getStatus() == UserBatchResultDTO.Status.CREATED) {
+            job.created();
+        } else {
+            job.duplicate(row.line, result.getErrors());
+        }
+    }
+
+    private static void enqueue(BlockingQueue<Future<List<ImportRow>>> chunks, Future<List<ImportRow>> chunk, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+
+        while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("A gravação da importação foi encerrada antes do fim do arquivo");
+            }
+        }
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+
+        List<String> columns = header.stream().map(column -> column.toLowerCase(Locale.ROOT)).collect(Collectors.toList());
+        int[] indexes = new int[COLUMNS.size()];
+
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            indexes[i] = columns.indexOf(COLUMNS.get(i));
+
+            if (indexes[i] < 0) {
+                throw new BusinessException("O cabeçalho do arquivo deve conter as colunas name, email, cpf e age!");
+            }
+        }
+
+        return indexes;
+    }
+
+    private static String field(List<String> fields, int index) {
+        String value = index < fields.size() ? fields.get(index) : null;
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseLine(String line, char delimiter) {
+
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString().trim());
+
+        return fields;
+    }
+
+    private void purgeFinishedJobs() {
+        Instant limit = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit));
+    }
+
+    private static class ImportLine {
+        private final long number;
+        private final String content;
+
+        private ImportLine(long number, String content) {
+            this.number = number;
+            this.content = content;
+        }
+    }
+
+    private static class ImportRow {
+        private final long line;
+        private final User user;
+        private final List<String> errors;
+
+        private ImportRow(long line, User user, List<String> errors) {
+            this.line = line;
+            this.user = user;
+            this.errors = errors;
+        }
+
+        private static ImportRow valid(long line, User user) {
+            return new ImportRow(line, user, null);
+        }
+
+        private static ImportRow invalid(long line, List<String> errors) {
+            return new ImportRow(line, null, errors);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Filtros de Bloom com os cpfs e emails cadastrados, usados para evitar consultas de unicidade
+ * quando a chave certamente não existe. Como remoções não são refletidas no filtro, ele é
+ * reconstruído periodicamente a partir da base, dimensionado para a quantidade de usuários com
+ * folga para os cadastros até a próxima reconstrução.
+ */
+@Component
+@Log4j2
+public class UserKeyFilter {
+    static final long MIN_EXPECTED_INSERTIONS = 1_000_000;
+    static final double EXPECTED_INSERTIONS_HEADROOM = 1.5;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+    private final Keys<Long> cpfs;
+    private final Keys<String> emails;
+    private volatile boolean ready;
+
+    public UserKeyFilter(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cpfs = new Keys<>("cpf", cpf -> Long.toString(cpf), meterRegistry);
+        this.emails = new Keys<>("email", email -> email.trim().toLowerCase(Locale.ROOT), meterRegistry);
+    }
+
+    public Keys<Long> cpfs() {
+        return cpfs;
+    }
+
+    public Keys<String> emails() {
+        return emails;
+    }
+
+    public void add(User user) {
+        add(List.of(user));
+    }
+
+    public void add(Collection<User> users) {
+
+        List<Long> cpfKeys = new ArrayList<>(users.size());
+        List<String> emailKeys = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            cpfKeys.add(user.getCpf());
+            emailKeys.add(user.getEmail());
+        }
+
+        InMemoryView.nowAndAfterCommit(() -> {
+            cpfs.putAll(cpfKeys);
+            emails.putAll(emailKeys);
+        });
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${users.key-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+
+        long start = System.nanoTime();
+
+        BloomFilter cpfFilter;
+        BloomFilter emailFilter;
+
+        cpfs.filters.startRebuild();
+        emails.filters.startRebuild();
+
+        try {
+            long expectedInsertions = Math.max(MIN_EXPECTED_INSERTIONS,
+                    (long) (userRepository.count() * EXPECTED_INSERTIONS_HEADROOM));
+
+            cpfFilter = new BloomFilter(expectedInsertions, FALSE_POSITIVE_RATE);
+            emailFilter = new BloomFilter(expectedInsertions, FALSE_POSITIVE_RATE);
+
+            userRepository.streamKeys((cpf, email) -> {
+                cpfFilter.put(cpfs.normalize(cpf));
+                emailFilter.put(emails.normalize(email));
+            });
+        } catch (RuntimeException ex) {
+            cpfs.filters.abortRebuild();
+            emails.filters.abortRebuild();
+
+            log.error("Erro ao reconstruir o filtro de chaves dos usuários", ex);
+            return;
+        }
+
+        cpfs.filters.finishRebuild(cpfFilter);
+        emails.filters.finishRebuild(emailFilter);
+        ready = true;
+
+        log.info("Filtro de chaves dos usuários reconstruído com {} cpfs em {} ms",
+                cpfFilter.approximateElementCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public final class Keys<K> {
+        private final Function<K, String> normalizer;
+        private final Counter maybe;
+        private final Counter skipped;
+        private final Counter falsePositives;
+        private final InMemoryView<BloomFilter> filters =
+                new InMemoryView<>(new BloomFilter(MIN_EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE));
+
+        private Keys(String type, Function<K, String> normalizer, MeterRegistry meterRegistry) {
+            this.normalizer = normalizer;
+            this.maybe = Counter.builder("users.key.filter.checks")
+                    .description("Consultas ao filtro de chaves dos usuários")
+                    .tags("type", type, "result", "maybe")
+                    .register(meterRegistry);
+            this.skipped = Counter.builder("users.key.filter.checks")
+                    .description("Consultas ao filtro de chaves dos usuários")
+                    .tags("type", type, "result", "skipped")
+                    .register(meterRegistry);
+            this.falsePositives = Counter.builder("users.key.filter.false.positives")
+                    .description("Chaves que o filtro indicou como possivelmente existentes mas não estavam na base")
+                    .tag("type", type)
+                    .register(meterRegistry);
+
+            Gauge.builder("users.key.filter.size", this, keys -> keys.filters.current().approximateElementCount())
+                    .description("Quantidade aproximada de chaves no filtro")
+                    .tag("type", type)
+                    .register(meterRegistry);
+            Gauge.builder("users.key.filter.bits", this, keys -> keys.filters.current().bitSize())
+                    .description("Tamanho do filtro em bits")
+                    .tag("type", type)
+                    .register(meterRegistry);
+            Gauge.builder("users.key.filter.false.positive.rate", this, keys -> keys.filters.current().expectedFalsePositiveRate())
+                    .description("Taxa esperada de falsos positivos do filtro")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Indica se o filtro já foi construído a partir da base; antes disso todas as chaves são liberadas.
+         */
+        public boolean isReady() {
+            return ready;
+        }
+
+        /**
+         * Retorna false apenas quando a chave certamente não está cadastrada.
+         */
+        public boolean mightContain(K key) {
+
+            if (!ready || key == null || filters.current().mightContain(normalize(key))) {
+                maybe.increment();
+                return true;
+            }
+
+            skipped.increment();
+            return false;
+        }
+
+        public void recordFalsePositives(long count) {
+            if (count > 0) {
+                falsePositives.increment(count);
+            }
+        }
+
+        private void putAll(List<K> keys) {
+
+            List<String> normalized = new ArrayList<>(keys.size());
+
+            for (K key : keys) {
+                if (key != null) {
+                    normalized.add(normalize(key));
+                }
+            }
+
+            filters.apply(filter -> normalized.forEach(filter::put));
+        }
+
+        private String normalize(K key) {
+            return normalizer.apply(key);
+        }
+    }
+}
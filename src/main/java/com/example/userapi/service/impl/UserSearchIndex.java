@@ -0,0 +1,219 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.TrigramIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Índice opcional de trigramas em memória sobre nome e email, usado para responder buscas por substring
+ * com uma lista de ids candidatos em vez de varrer a tabela. Os candidatos sempre são verificados
+ * na base e cobrem apenas os ids até o maior id lido na última reconstrução: os usuários acima
+ * dele, inseridos por outras instâncias, pelo gerador de massa de dados ou direto na base, são
+ * buscados na base por faixa de id. Valores antigos de usuários alterados permanecem no índice até
+ * a próxima reconstrução; usuários removidos são descartados dos candidatos.
+ *
+ * <p>Até a próxima reconstrução, o índice não enxerga as alterações de nome ou email feitas fora
+ * desta instância, nem as inserções de outras instâncias com ids de blocos da sequência reservados
+ * antes da reconstrução (abaixo do maior id lido).
+ *
+ * <p>O índice guarda os trigramas de todos os usuários no heap e lê a tabela inteira na
+ * inicialização e a cada reconstrução, por isso fica desligado por padrão
+ * (users.search-index.enabled) e, enquanto não é construído, as buscas vão para a base.
+ */
+@Component
+@Log4j2
+public class UserSearchIndex {
+    static final int MAX_CANDIDATES = 20_000;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final Counter indexed;
+    private final Counter fallback;
+    private final InMemoryView<Indexes> indexes = new InMemoryView<>(new Indexes());
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, MeterRegistry meterRegistry,
+                           @Value("${users.search-index.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.indexed = Counter.builder("users.search.index.queries")
+                .description("Buscas de usuários por nome ou email")
+                .tag("result", "indexed")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("users.search.index.queries")
+                .description("Buscas de usuários por nome ou email")
+                .tag("result", "fallback")
+                .register(meterRegistry);
+
+        Gauge.builder("users.search.index.grams", this, index -> index.indexes.current().names.gramCount())
+                .description("Quantidade de trigramas distintos no índice")
+                .tag("field", "name")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.grams", this, index -> index.indexes.current().emails.gramCount())
+                .description("Quantidade de trigramas distintos no índice")
+                .tag("field", "email")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.postings", this, index -> index.indexes.current().names.postingCount())
+                .description("Quantidade de ids nas listas de trigramas do índice")
+                .tag("field", "name")
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.postings", this, index -> index.indexes.current().emails.postingCount())
+                .description("Quantidade de ids nas listas de trigramas do índice")
+                .tag("field", "email")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna os candidatos ao nome e ao email do filtro, ou null quando o índice não pode
+     * responder a busca e a base deve ser consultada diretamente.
+     */
+    public Candidates candidates(User filter) {
+
+        if (!enabled) {
+            return null;
+        }
+
+        if (!ready) {
+            fallback.increment();
+            return null;
+        }
+
+        Indexes current = indexes.current();
+
+        long[] candidates = narrow(null, current.names.candidates(filter.getName()));
+        candidates = narrow(candidates, current.emails.candidates(filter.getEmail()));
+
+        if (candidates == null || candidates.length > MAX_CANDIDATES) {
+            fallback.increment();
+            return null;
+        }
+
+        indexed.increment();
+
+        // Ids acima do limite foram inseridos por esta instância depois da reconstrução e vêm da consulta por faixa
+        int indexedCount = Arrays.binarySearch(candidates, current.indexedUpTo + 1);
+        indexedCount = indexedCount < 0 ? -indexedCount - 1 : indexedCount;
+
+        long[] ids = Arrays.stream(candidates, 0, indexedCount)
+                .filter(id -> deleted.isEmpty() || !deleted.contains(id))
+                .toArray();
+
+        return new Candidates(ids, current.indexedUpTo);
+    }
+
+    public void add(User user) {
+        add(List.of(user));
+    }
+
+    public void add(Collection<User> users) {
+
+        if (!enabled) {
+            return;
+        }
+
+        InMemoryView.nowAndAfterCommit(() -> indexes.apply(current -> users.forEach(current::put)));
+    }
+
+    public void remove(Long userId) {
+
+        if (enabled) {
+            InMemoryView.afterCommit(() -> deleted.add(userId));
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${users.search-index.rebuild-interval:PT1H}")
+    public void rebuild() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        Set<Long> deletedBefore = Set.copyOf(deleted);
+        Indexes rebuilding = new Indexes();
+        indexes.startRebuild();
+
+        try {
+            userRepository.streamAll(user -> {
+                rebuilding.put(user);
+                rebuilding.indexedUpTo = Math.max(rebuilding.indexedUpTo, user.getId());
+            });
+        } catch (RuntimeException ex) {
+            indexes.abortRebuild();
+
+            log.error("Erro ao reconstruir o índice de busca dos usuários", ex);
+            return;
+        }
+
+        indexes.finishRebuild(rebuilding);
+        deleted.removeAll(deletedBefore);
+        ready = true;
+
+        log.info("Índice de busca dos usuários reconstruído com {} trigramas em {} ms",
+                rebuilding.names.gramCount() + rebuilding.emails.gramCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static long[] narrow(long[] candidates, long[] found) {
+
+        if (found == null) {
+            return candidates;
+        }
+
+        return candidates == null ? found : TrigramIndex.intersect(candidates, found);
+    }
+
+    /**
+     * Ids candidatos, em ordem crescente e até {@link #getIndexedUpTo()}. Os usuários com ids
+     * maiores não estão no índice e precisam ser buscados na base.
+     */
+    public static final class Candidates {
+        private final long[] ids;
+        private final long indexedUpTo;
+
+        private Candidates(long[] ids, long indexedUpTo) {
+            this.ids = ids;
+            this.indexedUpTo = indexedUpTo;
+        }
+
+        public long[] getIds() {
+            return ids;
+        }
+
+        public long getIndexedUpTo() {
+            return indexedUpTo;
+        }
+    }
+
+    private static final class Indexes {
+        private final TrigramIndex names = new TrigramIndex();
+        private final TrigramIndex emails = new TrigramIndex();
+        private long indexedUpTo;
+
+        private void put(User user) {
+
+            if (user.getId() == null) {
+                return;
+            }
+
+            names.add(user.getId(), user.getName());
+            emails.add(user.getId(), user.getEmail());
+        }
+    }
+}
@@ -1,141 +1,549 @@
 package com.example.userapi.service.impl;
 
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
 import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.api.validator.CPFValidador;
 import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.model.entity.User;
 import com.example.userapi.model.repository.UserRepository;
 import com.example.userapi.service.UserService;
+import com.example.userapi.util.CPFUtils;
+import com.example.userapi.util.CursorUtils;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Log4j2
 public class UserServiceImpl implements UserService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 50_000;
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final Validator validator;
-
-    public UserServiceImpl(UserRepository repository, ModelMapper modelMapper, Validator validator) {
+    private final UserKeyFilter userKeyFilter;
+    private final UserCache userCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSnapshot userSnapshot;
+    private final UserWriteCoalescer userWriteCoalescer;
+
+    public UserServiceImpl(UserRepository repository, UserMapper userMapper, Validator validator,
+                           UserKeyFilter userKeyFilter, UserCache userCache, UserSearchIndex userSearchIndex,
+                           UserSnapshot userSnapshot, UserWriteCoalescer userWriteCoalescer) {
         this.userRepository = repository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.validator = validator;
+        this.userKeyFilter = userKeyFilter;
+        this.userCache = userCache;
+        this.userSearchIndex = userSearchIndex;
+        this.userSnapshot = userSnapshot;
+        this.userWriteCoalescer = userWriteCoalescer;
     }
 
     @Override
     public User save(User user) {
 
-        if( userRepository.existsByCpf(user.getCpf()) ){
+        if (userWriteCoalescer.isEnabled()) {
+            return userWriteCoalescer.save(user);
+        }
+
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw uniqueViolation(ex);
+        }
+
+        userKeyFilter.add(saved);
+        userSearchIndex.add(saved);
+        userSnapshot.put(saved);
+        userCache.evict(saved.getId());
+
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<UserBatchResultDTO> saveAll(List<UserDTO> users) {
+
+        if (users.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("O lote não pode ultrapassar " + MAX_BATCH_SIZE + " usuários!");
+        }
+
+        UserBatchResultDTO[] results = new UserBatchResultDTO[users.size()];
+        List<Integer> candidateIndexes = new ArrayList<>();
+        List<User> candidates = new ArrayList<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            UserDTO userDTO = users.get(i);
+
+            if (userDTO == null) {
+                results[i] = batchResult(i, UserBatchResultDTO.Status.INVALID, null, "O usuário não foi informado!");
+                continue;
+            }
+
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+
+            if (!violations.isEmpty()) {
+                results[i] = UserBatchResultDTO.builder()
+                        .index(i)
+                        .status(UserBatchResultDTO.Status.INVALID)
+                        .errors(violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList()))
+                        .build();
+                continue;
+            }
+
+            candidateIndexes.add(i);
+            candidates.add(userMapper.toEntity(userDTO));
+        }
+
+        List<UserBatchResultDTO> insertResults = insertAll(candidates);
+
+        for (UserBatchResultDTO result : insertResults) {
+            int index = candidateIndexes.get(result.getIndex());
+            result.setIndex(index);
+            results[index] = result;
+        }
+
+        log.info("Lote de {} usuários processado", users.size());
 
-            log.error("Já existe um usuário com o cpf {} informado!", user.getCpf());
+        return List.of(results);
+    }
 
-            throw new BusinessException("Já existe um usuário com o cpf informado!");
+    @Override
+    @Transactional
+    public List<UserBatchResultDTO> insertAll(List<User> users) {
+
+        UserBatchResultDTO[] results = new UserBatchResultDTO[users.size()];
+
+        Set<Long> existingCpfs = findExisting(users, User::getCpf, UnaryOperator.identity(),
+                userKeyFilter.cpfs(), userRepository::findExistingCpfs);
+        Set<String> existingEmails = findExisting(users, User::getEmail, email -> email.toLowerCase(Locale.ROOT),
+                userKeyFilter.emails(), userRepository::findExistingEmails);
+
+        List<Integer> insertedIndexes = new ArrayList<>();
+        List<User> inserted = new ArrayList<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String email = user.getEmail().toLowerCase(Locale.ROOT);
+
+            if (existingCpfs.contains(user.getCpf())) {
+                results[i] = batchResult(i, UserBatchResultDTO.Status.DUPLICATE, null, "Já existe um usuário com o cpf informado!");
+            } else if (existingEmails.contains(email)) {
+                results[i] = batchResult(i, UserBatchResultDTO.Status.DUPLICATE, null, "Já existe um usuário com o email informado!");
+            } else {
+                existingCpfs.add(user.getCpf());
+                existingEmails.add(email);
+                insertedIndexes.add(i);
+                inserted.add(user);
+            }
         }
 
-        if( userRepository.existsByEmail(user.getCpf()) ){
+        try {
+            userRepository.insertAll(inserted);
+        } catch (DataIntegrityViolationException ex) {
+            throw uniqueViolation(ex);
+        }
 
-            log.error("Já existe um usuário com o email {} informado!", user.getEmail());
+        userKeyFilter.add(inserted);
+        userSearchIndex.add(inserted);
+        userSnapshot.put(inserted);
+        userCache.evict(inserted.stream().map(User::getId).collect(Collectors.toList()));
 
-            throw new BusinessException("Já existe um usuário com o email informado!");
+        for (int i = 0; i < inserted.size(); i++) {
+            int index = insertedIndexes.get(i);
+            results[index] = batchResult(index, UserBatchResultDTO.Status.CREATED, inserted.get(i).getId(), null);
         }
 
-        return userRepository.save(user);
+        return List.of(results);
     }
 
     @Override
     public Optional<User> findById(Long userId) {
 
-        return userRepository.findById(userId);
+        return userCache.get(userId, userRepository::findById);
     }
 
     @Override
-    public void delete(User user) {
-        userRepository.delete(user);
+    public Optional<Map<String, Object>> findById(Long userId, List<String> fields) {
+
+        return userRepository.findFields(null, fields, List.of(userId), null, 1).stream()
+                .findFirst()
+                .map(values -> userMapper.toMap(fields, values));
     }
 
     @Override
-    public User update(UserDTO userDTO, User user) {
+    public Optional<User> findByCpf(String cpf) {
 
-        if (userDTO.getCpf() != null && !userDTO.getCpf().equals(user.getCpf())) {
-            if (userRepository.existsByCpf(userDTO.getCpf())) {
+        if (!CPFValidador.isValid(cpf)) {
+            throw new BusinessException("O cpf informado é inválido!");
+        }
 
-                log.error("Já existe um usuário com o cpf {} informado!", userDTO.getCpf());
+        return userRepository.findByCpf(CPFUtils.parse(cpf));
+    }
 
-                throw new BusinessException("Já existe um usuário com o cpf informado!");
-            }
+    @Override
+    public boolean delete(Long userId, Long version) {
+
+        int deleted = version != null
+                ? userRepository.deleteByIdAndVersion(userId, version)
+                : userRepository.removeById(userId);
+
+        if (deleted == 0) {
+            rejectStaleVersion(userId, version);
+            return false;
         }
 
-        if (userDTO.getEmail() != null && !userDTO.getEmail().equals(user.getEmail())) {
+        userSearchIndex.remove(userId);
+        userSnapshot.remove(userId);
+        userCache.evict(userId);
 
-            if (userRepository.existsByEmail(userDTO.getEmail())) {
+        return true;
+    }
 
-                log.error("Já existe um usuário com o email {} informado!", userDTO.getEmail());
+    @Override
+    public Optional<User> update(Long userId, Long version, UserDTO userDTO) {
 
-                throw new BusinessException("Já existe um usuário com o email informado!");
-            }
+        List<String> errors = validator.validate(userDTO).stream()
+                .filter(violation -> violation.getInvalidValue() != null)
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+
+        if (!errors.isEmpty()) {
+            throw new BusinessException(String.join(", ", errors));
         }
 
-        modelMapper.map(userDTO, user);
+        return updateFields(userId, version, userMapper.toEntity(userDTO));
+    }
+
+    @Override
+    public Optional<User> replace(Long userId, Long version, UserDTO userDTO) {
+
+        return updateFields(userId, version, userMapper.toEntity(userDTO));
+    }
+
+    @Override
+    public List<User> find(User filter) {
 
-        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        List<User> snapshot = userSnapshot.find(filter, null, Integer.MAX_VALUE);
 
-        if (!violations.isEmpty()) {
-            throw new BusinessException(violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", ")));
+        if (snapshot != null) {
+            return snapshot;
         }
 
-        return userRepository.save(user);
+        UserSearchIndex.Candidates candidates = userSearchIndex.candidates(filter);
+
+        if (candidates == null) {
+            return userRepository.findAll(createExample(filter));
+        }
+
+        Example<User> example = createExample(filter);
+
+        return findCandidates(candidates, null, Integer.MAX_VALUE,
+                ids -> userRepository.findAllIn(example, ids),
+                (afterId, limit) -> userRepository.findAllAfter(example, afterId, limit));
     }
 
     @Override
-    public User replace(UserDTO userDTO, User user) {
+    public List<Map<String, Object>> find(User filter, List<String> fields) {
 
-        if (userDTO.getCpf() != null && !userDTO.getCpf().equals(user.getCpf())) {
+        List<User> snapshot = userSnapshot.find(filter, null, Integer.MAX_VALUE);
 
-            if (userRepository.existsByCpf(userDTO.getCpf())) {
+        if (snapshot != null) {
+            return toMaps(fields, snapshot);
+        }
 
-                log.error("Já existe um usuário com o cpf {} informado!", userDTO.getCpf());
+        Example<User> example = createExample(filter);
+        UserSearchIndex.Candidates candidates = userSearchIndex.candidates(filter);
 
-                throw new BusinessException("Já existe um usuário com o cpf informado!");
-            }
+        List<Object[]> rows = candidates == null
+                ? userRepository.findFields(example, fields, null, null, Integer.MAX_VALUE)
+                : findCandidates(candidates, null, Integer.MAX_VALUE,
+                        ids -> userRepository.findFields(example, fields, ids, null, Integer.MAX_VALUE),
+                        (afterId, limit) -> userRepository.findFields(example, fields, null, afterId, limit));
+
+        return rows.stream().map(values -> userMapper.toMap(fields, values)).collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPageDTO<User> find(User filter, String after, int limit) {
+
+        Long afterId = decodeCursor(after, limit);
+
+        List<User> users = userSnapshot.find(filter, afterId, limit + 1);
+
+        if (users == null) {
+            Example<User> example = createExample(filter);
+            UserSearchIndex.Candidates candidates = userSearchIndex.candidates(filter);
+
+            users = candidates == null
+                    ? userRepository.findAllAfter(example, afterId, limit + 1)
+                    : findCandidates(candidates, afterId, limit + 1,
+                            ids -> userRepository.findAllIn(example, ids),
+                            (from, remaining) -> userRepository.findAllAfter(example, from, remaining));
+        }
+
+        return page(users, limit, User::getId);
+    }
+
+    @Override
+    public CursorPageDTO<Map<String, Object>> find(User filter, String after, int limit, List<String> fields) {
+
+        Long afterId = decodeCursor(after, limit);
+
+        List<User> snapshot = userSnapshot.find(filter, afterId, limit + 1);
+
+        if (snapshot != null) {
+            return page(toMaps(fields, snapshot), limit, user -> (Long) user.get(UserMapper.ID_FIELD));
+        }
+
+        Example<User> example = createExample(filter);
+        UserSearchIndex.Candidates candidates = userSearchIndex.candidates(filter);
+
+        List<Object[]> rows = candidates == null
+                ? userRepository.findFields(example, fields, null, afterId, limit + 1)
+                : findCandidates(candidates, afterId, limit + 1,
+                        ids -> userRepository.findFields(example, fields, ids, null, Integer.MAX_VALUE),
+                        (from, remaining) -> userRepository.findFields(example, fields, null, from, remaining));
+
+        List<Map<String, Object>> users = rows.stream().map(values -> userMapper.toMap(fields, values)).collect(Collectors.toList());
+
+        return page(users, limit, user -> (Long) user.get(UserMapper.ID_FIELD));
+    }
+
+    @Override
+    public void export(Consumer<User> action) {
+
+        userRepository.streamAll(action);
+    }
+
+    /**
+     * Verifica na base, em ordem de id e em blocos, os candidatos do índice de busca depois do
+     * cursor, até encontrar a quantidade pedida de usuários que atendem ao filtro. Se faltarem
+     * usuários, completa com os ids acima dos cobertos pelo índice, buscados por faixa.
+     */
+    private <T> List<T> findCandidates(UserSearchIndex.Candidates candidates, Long afterId, int limit,
+                                       Function<List<Long>, List<T>> query, BiFunction<Long, Integer, List<T>> notIndexed) {
+
+        long[] ids = candidates.getIds();
+        List<T> users = new ArrayList<>();
+
+        for (int start = candidatesAfter(ids, afterId); start < ids.length && users.size() < limit; start += IN_CLAUSE_SIZE) {
+            List<Long> block = Arrays.stream(ids, start, Math.min(start + IN_CLAUSE_SIZE, ids.length))
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            users.addAll(query.apply(block));
+        }
+
+        if (users.size() >= limit) {
+            return users.size() > limit ? new ArrayList<>(users.subList(0, limit)) : users;
+        }
+
+        long after = afterId == null ? candidates.getIndexedUpTo() : Math.max(afterId, candidates.getIndexedUpTo());
+        users.addAll(notIndexed.apply(after, limit - users.size()));
+
+        return users;
+    }
+
+    private static int candidatesAfter(long[] candidates, Long afterId) {
+
+        if (afterId == null) {
+            return 0;
+        }
+
+        int from = Arrays.binarySearch(candidates, afterId + 1);
+
+        return from < 0 ? -from - 1 : from;
+    }
+
+    private static Long decodeCursor(String after, int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAX_PAGE_SIZE + "!");
+        }
+
+        return after != null ? CursorUtils.decode(after) : null;
+    }
+
+    private static <T> CursorPageDTO<T> page(List<T> users, int limit, Function<T, Long> id) {
+
+        if (users.size() <= limit) {
+            return new CursorPageDTO<>(users, null);
         }
 
-        if (userDTO.getEmail() != null && !userDTO.getEmail().equals(user.getEmail())) {
+        List<T> content = users.subList(0, limit);
 
-            if (userRepository.existsByEmail(userDTO.getEmail())) {
+        return new CursorPageDTO<>(content, CursorUtils.encode(id.apply(content.get(limit - 1))));
+    }
 
-                log.error("Já existe um usuário com o email {} informado!", userDTO.getEmail());
+    private List<Map<String, Object>> toMaps(List<String> fields, List<User> users) {
 
-                throw new BusinessException("Já existe um usuário com o email informado!");
+        return users.stream().map(user -> userMapper.toMap(fields, user)).collect(Collectors.toList());
+    }
+
+    private <K> Set<K> findExisting(List<User> users, Function<User, K> key, UnaryOperator<K> normalizer,
+                                    UserKeyFilter.Keys<K> filter, Function<Collection<K>, List<K>> query) {
+
+        // Antes da primeira reconstrução o filtro libera todas as chaves, que não contam como falsos positivos
+        boolean filtered = filter.isReady();
+        List<K> keys = users.stream().map(key).distinct().filter(filter::mightContain).collect(Collectors.toList());
+        Set<K> existing = new HashSet<>();
+
+        for (int from = 0; from < keys.size(); from += IN_CLAUSE_SIZE) {
+            query.apply(keys.subList(from, Math.min(from + IN_CLAUSE_SIZE, keys.size())))
+                    .forEach(value -> existing.add(normalizer.apply(value)));
+        }
+
+        if (filtered) {
+            filter.recordFalsePositives(keys.stream()
+                    .filter(Objects::nonNull)
+                    .map(normalizer)
+                    .distinct()
+                    .filter(value -> !existing.contains(value))
+                    .count());
+        }
+
+        return existing;
+    }
+
+    /**
+     * Aplica as alterações com um único UPDATE, sem carregar o usuário antes. O usuário só é
+     * lido de volta quando a resposta não pode ser montada a partir da requisição: alteração
+     * parcial ou versão desconhecida (sem If-Match).
+     */
+    private Optional<User> updateFields(Long userId, Long version, User changes) {
+
+        int updated;
+        try {
+            updated = userRepository.updateFields(userId, version, changes);
+        } catch (DataIntegrityViolationException ex) {
+            throw uniqueViolation(ex);
+        }
+
+        if (updated == 0) {
+            rejectStaleVersion(userId, version);
+            return Optional.empty();
+        }
+
+        changes.setId(userId);
+
+        userCache.evict(userId);
+        userKeyFilter.add(changes);
+        userSearchIndex.add(changes);
+
+        Optional<User> user;
+        if (version == null || changes.getName() == null || changes.getEmail() == null
+                || changes.getCpf() == null || changes.getAge() == null) {
+            user = findById(userId);
+        } else {
+            changes.setVersion(version + 1);
+            user = Optional.of(changes);
+        }
+
+        user.ifPresent(userSnapshot::put);
+
+        return user;
+    }
+
+    /**
+     * Chamado quando uma escrita não alterou nenhuma linha: se foi condicional e o usuário existe,
+     * a versão informada não é mais a atual.
+     */
+    private void rejectStaleVersion(Long userId, Long version) {
+
+        if (version != null && userRepository.existsById(userId)) {
+
+            log.error("A versão informada do usuário com id {} não é a atual", userId);
+
+            throw new PreconditionFailedException("O usuário foi alterado por outra requisição!");
+        }
+    }
+
+    private RuntimeException uniqueViolation(DataIntegrityViolationException ex) {
+
+        String constraint = violatedConstraint(ex);
+
+        if (constraint.contains(User.CPF_CONSTRAINT)) {
+
+            log.error("Já existe um usuário com o cpf informado: {}", ex.getMostSpecificCause().getMessage());
+
+            return new BusinessException("Já existe um usuário com o cpf informado!");
+        }
+
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+
+            log.error("Já existe um usuário com o email informado: {}", ex.getMostSpecificCause().getMessage());
+
+            return new BusinessException("Já existe um usuário com o email informado!");
+        }
+
+        return ex;
+    }
+
+    private static String violatedConstraint(DataIntegrityViolationException ex) {
+
+        if (ex.getCause() instanceof ConstraintViolationException) {
+            String name = ((ConstraintViolationException) ex.getCause()).getConstraintName();
+
+            if (name != null) {
+                return name.toUpperCase(Locale.ROOT);
             }
         }
 
-        modelMapper.map(userDTO, user);
+        String message = ex.getMostSpecificCause().getMessage();
 
-        return userRepository.save(user);
+        return message != null ? message.toUpperCase(Locale.ROOT) : "";
     }
 
+    private static UserBatchResultDTO batchResult(int index, UserBatchResultDTO.Status status, Long id, String error) {
 
-    @Override
-    public List<User> find(User filter) {
+        return UserBatchResultDTO.builder()
+                .index(index)
+                .status(status)
+                .id(id)
+                .errors(error != null ? Collections.singletonList(error) : null)
+                .build();
+    }
 
-        Example<User> example = Example.of(filter,
+    private Example<User> createExample(User filter) {
+
+        return Example.of(filter,
                 ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withIgnoreNullValues()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
         );
-
-        return userRepository.findAll(example);
     }
 
 }
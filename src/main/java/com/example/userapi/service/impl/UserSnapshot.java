@@ -0,0 +1,248 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Example;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Modelo de leitura opcional com todos os usuários em memória, em colunas (ver {@link UserColumns}),
+ * que responde as buscas por exemplo sem consultar a base. É gravado periodicamente em um arquivo
+ * mapeado em memória e lido dele na inicialização, para que uma instância reiniciada responda
+ * imediatamente enquanto a reconstrução a partir da base acontece em segundo plano.
+ *
+ * <p>As escritas desta instância são aplicadas após o commit. Os usuários inseridos por outras
+ * instâncias ou direto na base (ids acima do maior lido) são buscados ao carregar o arquivo e a cada
+ * users.snapshot.refresh-interval. Alterações e remoções feitas fora desta instância só aparecem na
+ * reconstrução seguinte, por isso o modelo deixa de responder, e as buscas vão para a base, quando
+ * a última leitura completa da base tem mais de users.snapshot.max-staleness.
+ */
+@Component
+@Log4j2
+public class UserSnapshot {
+    static final int REFRESH_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Path path;
+    private final long maxStalenessMillis;
+    private final InMemoryView<UserColumns> columns = new InMemoryView<>(new UserColumns());
+    private volatile boolean ready;
+
+    public UserSnapshot(UserRepository userRepository, MeterRegistry meterRegistry,
+                        @Value("${users.snapshot.enabled:false}") boolean enabled,
+                        @Value("${users.snapshot.path:data/users.snapshot}") Path path,
+                        @Value("${users.snapshot.max-staleness:PT2H}") Duration maxStaleness) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.path = path;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+
+        Gauge.builder("users.snapshot.size", this, snapshot -> snapshot.columns.current().size())
+                .description("Quantidade de usuários no modelo de leitura em memória")
+                .register(meterRegistry);
+        Gauge.builder("users.snapshot.bytes", this, snapshot -> snapshot.columns.current().usedBytes())
+                .description("Bytes ocupados pelos usuários no modelo de leitura em memória")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.snapshot.age", this, snapshot -> snapshot.ageMillis() / 1000.0)
+                .description("Tempo desde a última leitura completa da base pelo modelo de leitura")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Retorna os usuários que atendem ao filtro, ou null quando o modelo de leitura está
+     * desabilitado, ainda não foi carregado ou está desatualizado e a base deve ser consultada.
+     */
+    public List<User> find(User filter, Long afterId, int limit) {
+        return ready && ageMillis() <= maxStalenessMillis ? columns.current().find(filter, afterId, limit) : null;
+    }
+
+    public void put(User user) {
+        put(List.of(user));
+    }
+
+    public void put(Collection<User> users) {
+        apply(columns -> users.forEach(columns::put));
+    }
+
+    public void remove(Long userId) {
+        apply(columns -> columns.remove(userId));
+    }
+
+    @PostConstruct
+    public void load() {
+
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        columns.startRebuild();
+
+        try {
+            UserColumns loaded = UserColumns.read(path);
+
+            columns.finishRebuild(loaded);
+        } catch (IOException | RuntimeException ex) {
+            columns.abortRebuild();
+
+            log.error("Erro ao carregar o snapshot de usuários de {}", path, ex);
+            return;
+        }
+
+        try {
+            int inserted = refreshInserted();
+            ready = true;
+
+            log.info("Snapshot de usuários carregado de {} com {} usuários, {} inseridos depois dele, em {} ms",
+                    path, columns.current().size(), inserted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException ex) {
+            log.error("Erro ao buscar os usuários inseridos depois do snapshot de {}", path, ex);
+        }
+
+        if (ageMillis() > maxStalenessMillis) {
+            log.warn("Snapshot de usuários de {} lido da base há {} s: as buscas vão para a base até a reconstrução",
+                    path, ageMillis() / 1000);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${users.snapshot.rebuild-interval:PT1H}")
+    public void rebuild() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long syncedAt = System.currentTimeMillis();
+        UserColumns rebuilding = new UserColumns();
+
+        columns.startRebuild();
+
+        try {
+            userRepository.streamAll(user -> {
+                rebuilding.put(user);
+                rebuilding.syncedUpTo(user.getId());
+            });
+        } catch (RuntimeException ex) {
+            columns.abortRebuild();
+
+            log.error("Erro ao reconstruir o snapshot de usuários", ex);
+            return;
+        }
+
+        rebuilding.synced(syncedAt, rebuilding.syncedUpTo());
+
+        // As escritas feitas durante a leitura são reaplicadas; a versão de cada usuário impede regressões
+        columns.finishRebuild(rebuilding);
+        ready = true;
+
+        log.info("Snapshot de usuários reconstruído com {} usuários ({} bytes) em {} ms",
+                rebuilding.size(), rebuilding.usedBytes(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        persist();
+    }
+
+    @Scheduled(initialDelayString = "${users.snapshot.refresh-interval:PT30S}",
+            fixedDelayString = "${users.snapshot.refresh-interval:PT30S}")
+    public void refresh() {
+
+        if (!enabled || !ready) {
+            return;
+        }
+
+        try {
+            int inserted = refreshInserted();
+
+            if (inserted > 0) {
+                log.info("{} usuários inseridos fora desta instância adicionados ao snapshot", inserted);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Erro ao buscar os usuários inseridos fora desta instância", ex);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${users.snapshot.persist-interval:PT5M}",
+            fixedDelayString = "${users.snapshot.persist-interval:PT5M}")
+    public void persist() {
+
+        if (!enabled || !ready) {
+            return;
+        }
+
+        try {
+            columns.current().write(path);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Erro ao gravar o snapshot de usuários em {}", path, ex);
+        }
+    }
+
+    /**
+     * Adiciona, em páginas, os usuários com id acima do maior já lido da base.
+     */
+    private int refreshInserted() {
+
+        Example<User> all = Example.of(new User());
+        long after = columns.current().syncedUpTo();
+        int inserted = 0;
+
+        while (true) {
+            List<User> users = userRepository.findAllAfter(all, after, REFRESH_PAGE_SIZE);
+
+            if (users.isEmpty()) {
+                return inserted;
+            }
+
+            long upTo = users.get(users.size() - 1).getId();
+            columns.apply(current -> {
+                users.forEach(current::put);
+                current.syncedUpTo(upTo);
+            });
+
+            inserted += users.size();
+            after = upTo;
+
+            if (users.size() < REFRESH_PAGE_SIZE) {
+                return inserted;
+            }
+        }
+    }
+
+    private long ageMillis() {
+        return System.currentTimeMillis() - columns.current().syncedAt();
+    }
+
+    /**
+     * Aplica a escrita apenas após o commit, para que o modelo nunca mostre dados de uma transação desfeita.
+     */
+    private void apply(Consumer<UserColumns> change) {
+
+        if (enabled) {
+            InMemoryView.afterCommit(() -> columns.apply(change));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Commit em grupo das inserções individuais, habilitado em users.write.group-commit.enabled. Cada
+ * inserção entra em uma fila limitada e uma única thread grava juntas as que chegam dentro da janela
+ * users.write.group-commit.max-delay, até users.write.group-commit.max-batch-size, em uma transação
+ * com inserções em lote. Cada requisição recebe o próprio resultado: o usuário com o id gerado ou
+ * o erro de duplicidade, como na inserção individual. Quem não consegue entrar na fila ou não
+ * recebe o resultado dentro de users.write.group-commit.timeout recebe 503.
+ */
+@Component
+@Log4j2
+public class UserWriteCoalescer {
+    private static final String TIMEOUT_MESSAGE = "A gravação do usuário não foi concluída a tempo, tente novamente em instantes!";
+    private static final String CLOSED_MESSAGE = "A aplicação está sendo encerrada, tente novamente em instantes!";
+
+    private final UserService userService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutNanos;
+    private final BlockingQueue<PendingInsert> queue;
+    private final DistributionSummary groupSize;
+    private volatile boolean closed;
+    private Thread writer;
+
+    public UserWriteCoalescer(@Lazy UserService userService, MeterRegistry meterRegistry,
+                              @Value("${users.write.group-commit.enabled:false}") boolean enabled,
+                              @Value("${users.write.group-commit.max-batch-size:200}") int maxBatchSize,
+                              @Value("${users.write.group-commit.max-delay:2ms}") Duration maxDelay,
+                              @Value("${users.write.group-commit.queue-capacity:1000}") int queueCapacity,
+                              @Value("${users.write.group-commit.timeout:PT10S}") Duration timeout) {
+        this.userService = userService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.groupSize = DistributionSummary.builder("users.write.group.size")
+                .description("Quantidade de inserções gravadas em cada commit em grupo")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enfileira a inserção e aguarda o commit do grupo. Com a fila cheia, a requisição espera por
+     * espaço, o que limita a quantidade de inserções pendentes.
+     */
+    public User save(User user) {
+
+        if (closed) {
+            throw new ServiceUnavailableException(CLOSED_MESSAGE);
+        }
+
+        PendingInsert pending = new PendingInsert(user);
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        try {
+            if (!queue.offer(pending, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException(TIMEOUT_MESSAGE);
+            }
+
+            // O encerramento pode ter esvaziado a fila antes desta inserção entrar nela
+            if (closed && queue.remove(pending)) {
+                throw new ServiceUnavailableException(CLOSED_MESSAGE);
+            }
+
+            return pending.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            queue.remove(pending);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Inserção do usuário interrompida", ex);
+        } catch (TimeoutException ex) {
+            // Fora da fila, a inserção já está em um grupo e pode ser confirmada depois da resposta
+            queue.remove(pending);
+            throw new ServiceUnavailableException(TIMEOUT_MESSAGE);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        writer = new Thread(this::run, "users-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+
+        log.info("Commit em grupo das inserções habilitado: até {} usuários a cada {} µs",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxDelayNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+
+        closed = true;
+
+        if (writer == null) {
+            return;
+        }
+
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result.completeExceptionally(
+                new ServiceUnavailableException(CLOSED_MESSAGE)));
+    }
+
+    private void run() {
+
+        List<PendingInsert> group = new ArrayList<>(maxBatchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                collect(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!group.isEmpty()) {
+                write(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Aguarda a primeira inserção e reúne as que chegam até o fim da janela ou até o grupo encher.
+     */
+    private void collect(List<PendingInsert> group) throws InterruptedException {
+
+        group.add(queue.take());
+
+        long deadline = System.nanoTime() + maxDelayNanos;
+
+        while (group.size() < maxBatchSize) {
+            if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                continue;
+            }
+
+            PendingInsert next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+            if (next == null) {
+                return;
+            }
+
+            group.add(next);
+        }
+    }
+
+    private void write(List<PendingInsert> group) {
+
+        groupSize.record(group.size());
+
+        List<User> users = group.stream().map(pending -> pending.user).collect(Collectors.toList());
+
+        try {
+            List<UserBatchResultDTO> results = userService.insertAll(users);
+
+            for (int i = 0; i < group.size(); i++) {
+                complete(group.get(i), results.get(i));
+            }
+        } catch (BusinessException ex) {
+            // Violação de unicidade por uma escrita concorrente fora do grupo: desfaz o grupo
+            // inteiro, então cada inserção é repetida sozinha para que só a duplicada falhe
+            log.warn("Commit em grupo de {} usuários desfeito, repetindo individualmente: {}", group.size(), ex.getMessage());
+
+            group.forEach(this::writeAlone);
+        } catch (Throwable ex) {
+            // Inclui Errors: a thread de gravação é única e cada requisição do grupo precisa de uma resposta
+            log.error("Erro no commit em grupo de {} usuários", group.size(), ex);
+
+            group.forEach(pending -> pending.result.completeExceptionally(ex));
+        }
+    }
+
+    private void writeAlone(PendingInsert pending) {
+
+        pending.user.setId(null);
+        pending.user.setVersion(null);
+
+        try {
+            complete(pending, userService.insertAll(List.of(pending.user)).get(0));
+        } catch (Throwable ex) {
+            pending.result.completeExceptionally(ex);
+        }
+    }
+
+    private static void complete(PendingInsert pending, UserBatchResultDTO result) {
+
+        if (result.getStatus() == UserBatchResultDTO.Status.CREATED) {
+            pending.result.complete(pending.user);
+        } else {
+            pending.result.completeExceptionally(new BusinessException(result.getErrors().get(0)));
+        }
+    }
+
+    private static final class PendingInsert {
+        private final User user;
+        private final CompletableFuture<User> result = new CompletableFuture<>();
+
+        private PendingInsert(User user) {
+            this.user = user;
+        }
+    }
+}
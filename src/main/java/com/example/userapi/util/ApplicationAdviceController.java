@@ -1,7 +1,11 @@
 package com.example.userapi.util;
 
 import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.exception.ServiceUnavailableException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -31,10 +35,27 @@ public class ApplicationAdviceController {
         return new ApiErrors(ex.getMessage());
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ApiErrors handlePreconditionFailedException(PreconditionFailedException ex){
+        return new ApiErrors(ex.getMessage());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiErrors handleServiceUnavailableException(ServiceUnavailableException ex){
+        return new ApiErrors(ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailureException(OptimisticLockingFailureException ex){
+        return new ApiErrors("O usuário foi alterado por outra requisição!");
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiErrors handleResponseStatusException(ResponseStatusException ex ){
-        return new ApiErrors(ex.getReason());
+    public ResponseEntity<ApiErrors> handleResponseStatusException(ResponseStatusException ex ){
+        return ResponseEntity.status(ex.getStatus()).headers(ex.getResponseHeaders()).body(new ApiErrors(ex.getReason()));
     }
 
     @ExceptionHandler(SQLException.class)
@@ -0,0 +1,113 @@
+package com.example.userapi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para chaves do tipo String, seguro para escritas concorrentes.
+ * Pode responder "talvez" para chaves ausentes, mas nunca "não" para chaves inseridas.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong bitCount = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o filtro de Bloom");
+        }
+
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+
+        this.words = new AtomicLongArray(words);
+        this.bitSize = words * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String key) {
+
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            if (set(index(h1 + i * h2))) {
+                bitCount.incrementAndGet();
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0xC2B2AE3D27D4EB4FL) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public long approximateElementCount() {
+        double fractionOfBitsSet = (double) bitCount.get() / bitSize;
+        return Math.round(-Math.log1p(-fractionOfBitsSet) * bitSize / hashFunctions);
+    }
+
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitCount.get() / bitSize, hashFunctions);
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private boolean set(long index) {
+
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+
+        return true;
+    }
+
+    private static long hash(String key) {
+
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.userapi.util;
+
+import com.example.userapi.exception.BusinessException;
+
+public final class CPFUtils {
+    private static final int DIGITS = 11;
+
+    private CPFUtils() {
+    }
+
+    /**
+     * Converte o cpf, com ou sem pontuação, para a forma numérica canônica usada na base.
+     */
+    public static Long parse(String cpf) {
+
+        if (cpf == null) {
+            return null;
+        }
+
+        long value = 0;
+        int digits = 0;
+
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c != '.' && c != '-') {
+                throw new BusinessException("O cpf informado é inválido!");
+            }
+        }
+
+        if (digits == 0 || digits > DIGITS) {
+            throw new BusinessException("O cpf informado é inválido!");
+        }
+
+        return value;
+    }
+
+    public static String format(Long cpf) {
+
+        if (cpf == null) {
+            return null;
+        }
+
+        char[] formatted = new char[14];
+        long value = cpf;
+
+        for (int i = formatted.length - 1; i >= 0; i--) {
+            if (i == 11) {
+                formatted[i] = '-';
+            } else if (i == 3 || i == 7) {
+                formatted[i] = '.';
+            } else {
+                formatted[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+
+        return new String(formatted);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.userapi.util;
+
+import com.example.userapi.exception.PreconditionFailedException;
+
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Obtém a versão informada no If-Match, ou null quando o cabeçalho está ausente ou é "*".
+     */
+    public static Long parseIfMatch(String ifMatch) {
+
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("O usuário foi alterado por outra requisição!");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.userapi.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TextUtils {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextUtils() {
+    }
+
+    /**
+     * Remove acentos e maiúsculas, como a collation padrão do MySQL 8 (utf8mb4_0900_ai_ci) faz
+     * nas comparações de nome e email, para que as buscas em memória encontrem os mesmos usuários.
+     */
+    public static String fold(String value) {
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
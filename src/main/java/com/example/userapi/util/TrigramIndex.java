@@ -0,0 +1,183 @@
+package com.example.userapi.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice invertido de trigramas para buscas por substring sem diferenciar maiúsculas, minúsculas
+ * e acentos (ver {@link TextUtils#fold}), seguro para escritas concorrentes. Os ids candidatos de uma busca são a interseção das listas
+ * de ids de cada trigrama do termo; como as listas não são reduzidas quando um valor muda,
+ * os candidatos podem conter ids que não correspondem mais ao termo e devem ser verificados.
+ */
+public class TrigramIndex {
+    public static final int GRAM_SIZE = 3;
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, Postings> postings = new ConcurrentHashMap<>();
+    private final AtomicLong postingCount = new AtomicLong();
+
+    public void add(long id, String value) {
+
+        if (value == null) {
+            return;
+        }
+
+        String normalized = TextUtils.fold(value);
+
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            if (postings.computeIfAbsent(gram(normalized, i), key -> new Postings()).add(id)) {
+                postingCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Retorna, em ordem crescente, os ids que podem conter o termo, ou null quando o termo
+     * é curto demais para ser respondido pelo índice.
+     */
+    public long[] candidates(String term) {
+
+        if (term == null) {
+            return null;
+        }
+
+        String normalized = TextUtils.fold(term);
+
+        if (normalized.length() < GRAM_SIZE) {
+            return null;
+        }
+
+        int grams = normalized.length() - GRAM_SIZE + 1;
+        Postings.View[] views = new Postings.View[grams];
+
+        for (int i = 0; i < grams; i++) {
+            Postings list = postings.get(gram(normalized, i));
+
+            if (list == null) {
+                return EMPTY;
+            }
+
+            views[i] = list.view();
+        }
+
+        // Começa pela lista mais curta para que cada interseção percorra o menor resultado possível
+        Arrays.sort(views, (a, b) -> Integer.compare(a.size, b.size));
+
+        long[] result = Arrays.copyOf(views[0].ids, views[0].size);
+        int size = result.length;
+
+        for (int i = 1; i < views.length && size > 0; i++) {
+            size = intersect(result, size, views[i]);
+        }
+
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    public static long[] intersect(long[] first, long[] second) {
+
+        long[] result = first.clone();
+
+        return Arrays.copyOf(result, intersect(result, result.length, new Postings.View(second, second.length)));
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+
+    public long postingCount() {
+        return postingCount.get();
+    }
+
+    private static int intersect(long[] result, int size, Postings.View other) {
+
+        int kept = 0;
+        int j = 0;
+
+        for (int i = 0; i < size && j < other.size; i++) {
+            long id = result[i];
+
+            if (other.size - j > (long) (size - i) * 8) {
+                // Lista muito maior: busca binária em vez de avançar elemento a elemento
+                int found = Arrays.binarySearch(other.ids, j, other.size, id);
+                if (found >= 0) {
+                    result[kept++] = id;
+                    j = found + 1;
+                } else {
+                    j = -found - 1;
+                }
+                continue;
+            }
+
+            while (j < other.size && other.ids[j] < id) {
+                j++;
+            }
+
+            if (j < other.size && other.ids[j] == id) {
+                result[kept++] = id;
+                j++;
+            }
+        }
+
+        return kept;
+    }
+
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    /**
+     * Lista ordenada de ids de um trigrama. Ids maiores que o último, o caso comum com ids
+     * gerados por sequência, são acrescentados no próprio array: leitores que já obtiveram uma
+     * visão continuam lendo apenas até o tamanho que viram. Os demais geram uma cópia do array.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized boolean add(long id) {
+
+            if (size == 0 || id > ids[size - 1]) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size + (size >> 1));
+                }
+                ids[size++] = id;
+                return true;
+            }
+
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position >= 0) {
+                return false;
+            }
+
+            position = -position - 1;
+
+            long[] copy = new long[Math.max(ids.length, size + 1)];
+            System.arraycopy(ids, 0, copy, 0, position);
+            copy[position] = id;
+            System.arraycopy(ids, position, copy, position + 1, size - position);
+
+            ids = copy;
+            size++;
+
+            return true;
+        }
+
+        synchronized View view() {
+            return new View(ids, size);
+        }
+
+        private static final class View {
+            private final long[] ids;
+            private final int size;
+
+            private View(long[] ids, int size) {
+                this.ids = ids;
+                this.size = size;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.userapi.util;
+
+import com.example.userapi.api.validator.CPFValidador;
+import com.example.userapi.model.entity.User;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Gera usuários sintéticos de forma determinística: o usuário de um índice depende apenas da
+ * semente e do índice, então lotes podem ser gerados em qualquer ordem e em paralelo. Os cpfs são
+ * uma permutação dos índices sobre os nove primeiros dígitos, sem os de dígitos repetidos, e os
+ * emails contêm o índice, de modo que ambos são únicos para até {@link #MAX_USERS} usuários.
+ */
+public final class UserDataGenerator {
+    public static final long MAX_USERS = 999_999_990L;
+
+    private static final long MULTIPLIER = 982_451_653L;
+    private static final long REPEATED_DIGITS = 111_111_111L;
+    private static final long VALID_PER_BLOCK = REPEATED_DIGITS - 1;
+
+    private static final String[] FIRST_NAMES = {
+            "Maria", "José", "Ana", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+            "Juliana", "Luiz", "Fernanda", "Marcos", "Patrícia", "Gabriel", "Aline", "Rafael", "Camila", "Daniel",
+            "Amanda", "Marcelo", "Bruna", "Bruno", "Jéssica", "Eduardo", "Letícia", "Felipe", "Júlia", "Raimundo",
+            "Luciana", "Rodrigo", "Vanessa", "Mariana", "Gabriela", "Sebastião", "Adriana", "Beatriz", "Larissa",
+            "Bernardo", "Heitor", "Isabela", "Enzo", "Guilhermina", "Maximiliano"
+    };
+
+    private static final String[] SURNAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Albuquerque", "Cavalcanti", "Figueiredo",
+            "Vasconcelos", "Bittencourt"
+    };
+
+    private static final String[] DOMAINS = {"example.com", "example.org", "example.net"};
+
+    private static final String[] FIRST_NAME_SLUGS = slugs(FIRST_NAMES);
+    private static final String[] SURNAME_SLUGS = slugs(SURNAMES);
+
+    private final long seed;
+    private final long shift;
+
+    public UserDataGenerator(long seed) {
+        this.seed = seed;
+        this.shift = Math.floorMod(new SplittableRandom(seed).nextLong(), MAX_USERS);
+    }
+
+    /**
+     * Usuários dos índices de from (inclusive) a to (exclusive), sem id.
+     */
+    public List<User> users(long from, long to) {
+
+        List<User> users = new ArrayList<>((int) (to - from));
+
+        for (long index = from; index < to; index++) {
+            users.add(user(index));
+        }
+
+        return users;
+    }
+
+    public User user(long index) {
+
+        if (index < 0 || index >= MAX_USERS) {
+            throw new IllegalArgumentException("Índice de usuário fora do intervalo: " + index);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+
+        // Distribuições concentradas nos primeiros nomes da lista, como nomes populares
+        int first = skewed(random, FIRST_NAMES.length);
+        int surnameCount = surnameCount(random);
+
+        StringBuilder name = new StringBuilder(FIRST_NAMES[first]);
+        int last = 0;
+
+        for (int i = 0; i < surnameCount; i++) {
+            last = skewed(random, SURNAMES.length);
+            name.append(' ').append(SURNAMES[last]);
+        }
+
+        String email = FIRST_NAME_SLUGS[first] + '.' + SURNAME_SLUGS[last] + '.' + index + '@'
+                + DOMAINS[random.nextInt(DOMAINS.length)];
+
+        int age = (int) Math.round(38 + random.nextGaussian() * 14);
+
+        return User.builder()
+                .name(name.toString())
+                .email(email)
+                .cpf(cpf(index))
+                .age(Math.max(18, Math.min(90, age)))
+                .build();
+    }
+
+    /**
+     * Cpf do índice: uma permutação afim sobre as bases válidas, que excluem as de dígitos repetidos.
+     */
+    private long cpf(long index) {
+
+        long position = Math.floorMod(index * MULTIPLIER + shift, MAX_USERS);
+
+        return CPFValidador.withCheckDigits(base(position));
+    }
+
+    /**
+     * Nove primeiros dígitos da posição, pulando os múltiplos de 111.111.111 (dígitos repetidos).
+     */
+    static int base(long position) {
+        return (int) (position / VALID_PER_BLOCK * REPEATED_DIGITS + position % VALID_PER_BLOCK + 1);
+    }
+
+    private static int skewed(SplittableRandom random, int bound) {
+        double value = random.nextDouble();
+        return (int) (value * value * bound);
+    }
+
+    private static int surnameCount(SplittableRandom random) {
+        int value = random.nextInt(100);
+        return value < 25 ? 1 : value < 80 ? 2 : value < 95 ? 3 : 4;
+    }
+
+    private static String[] slugs(String[] names) {
+
+        String[] slugs = new String[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            slugs[i] = Normalizer.normalize(names[i], Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase(Locale.ROOT);
+        }
+
+        return slugs;
+    }
+}
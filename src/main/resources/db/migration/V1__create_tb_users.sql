@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS `tb_users` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `age` INTEGER NOT NULL,
+    `cpf` VARCHAR(14) NOT NULL,
+    `email` VARCHAR(50) NOT NULL,
+    `name` VARCHAR(100) NOT NULL,
+    PRIMARY KEY (`id`),
+    CONSTRAINT `UK_of4vosklhlys549u3r1jtlgmh` UNIQUE (`cpf`),
+    CONSTRAINT `UK_grd22228p1miaivbn9yg178pm` UNIQUE (`email`)
+) ENGINE = InnoDB;
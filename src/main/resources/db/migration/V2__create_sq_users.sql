@@ -0,0 +1,8 @@
+CREATE TABLE `sq_users` (
+    `next_val` BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO `sq_users` (`next_val`)
+SELECT COALESCE(MAX(`id`), 0) + 1 FROM `tb_users`;
+
+ALTER TABLE `tb_users` MODIFY `id` BIGINT NOT NULL;
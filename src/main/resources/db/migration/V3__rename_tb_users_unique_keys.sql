@@ -0,0 +1,3 @@
+ALTER TABLE `tb_users`
+    RENAME INDEX `UK_of4vosklhlys549u3r1jtlgmh` TO `UK_USERS_CPF`,
+    RENAME INDEX `UK_grd22228p1miaivbn9yg178pm` TO `UK_USERS_EMAIL`;
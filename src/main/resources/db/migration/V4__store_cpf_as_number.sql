@@ -0,0 +1,17 @@
+-- Converte o cpf para a forma numérica canônica (11 dígitos sem pontuação).
+-- O índice único da nova coluna é criado antes de remover a antiga: se houver o mesmo cpf
+-- cadastrado com e sem pontuação, a migração falha aqui sem perder dados e as duplicidades
+-- devem ser resolvidas manualmente.
+ALTER TABLE `tb_users` ADD COLUMN `cpf_number` BIGINT NULL;
+
+UPDATE `tb_users` SET `cpf_number` = CAST(REPLACE(REPLACE(`cpf`, '.', ''), '-', '') AS UNSIGNED);
+
+ALTER TABLE `tb_users` ADD CONSTRAINT `UK_USERS_CPF_NUMBER` UNIQUE (`cpf_number`);
+
+ALTER TABLE `tb_users`
+    DROP INDEX `UK_USERS_CPF`,
+    DROP COLUMN `cpf`;
+
+ALTER TABLE `tb_users`
+    CHANGE COLUMN `cpf_number` `cpf` BIGINT NOT NULL,
+    RENAME INDEX `UK_USERS_CPF_NUMBER` TO `UK_USERS_CPF`;
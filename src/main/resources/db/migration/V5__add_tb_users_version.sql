@@ -0,0 +1 @@
+ALTER TABLE `tb_users` ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+CREATE TABLE `tb_idempotency_keys` (
+    `id` VARCHAR(255) NOT NULL,
+    `fingerprint` CHAR(64) NULL,
+    `status` INTEGER NULL,
+    `content_type` VARCHAR(255) NULL,
+    `etag` VARCHAR(255) NULL,
+    `location` VARCHAR(2048) NULL,
+    `body` LONGBLOB NULL,
+    `expires_at` BIGINT NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `IX_IDEMPOTENCY_KEYS_EXPIRES_AT` (`expires_at`)
+) ENGINE = InnoDB;
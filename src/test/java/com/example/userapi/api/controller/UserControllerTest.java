@@ -1,7 +1,10 @@
 package com.example.userapi.api.controller;
 
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
 import com.example.userapi.api.dto.UserDTO;
 import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.model.entity.User;
 import com.example.userapi.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,16 +21,27 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.Optional;
 
 import static com.example.userapi.util.UserUtil.createNewUser;
 import static com.example.userapi.util.UserUtil.createNewUserDTO;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -122,6 +136,7 @@ public class UserControllerTest {
 
         User user = createNewUser();
         user.setId(id);
+        user.setVersion(0L);
 
         BDDMockito.given( service.findById(id) ).willReturn(Optional.of(user));
 
@@ -133,21 +148,243 @@ public class UserControllerTest {
             .perform(request)
             .andExpect(status().isOk())
             .andExpect(jsonPath("name").value(createNewUser().getName()))
-            .andExpect(jsonPath("cpf").value(createNewUser().getCpf()))
+            .andExpect(jsonPath("cpf").value(createNewUserDTO().getCpf()))
             .andExpect(jsonPath("email").value(createNewUser().getEmail()))
-            .andExpect(jsonPath("age").value(createNewUser().getAge()));
+            .andExpect(jsonPath("age").value(createNewUser().getAge()))
+            .andExpect(header().string("ETag", "\"0\""));
     }
+    @Test
+    @DisplayName("Deve obter um usuario pelo cpf, com ou sem pontuação.")
+    public void shouldReturnUserByCpf() throws Exception{
+
+        User user = createNewUser();
+        user.setId(1L);
+
+        BDDMockito.given( service.findByCpf("89740897002") ).willReturn(Optional.of(user));
+
+        mvc
+            .perform(MockMvcRequestBuilders.get(USER_API.concat("/cpf/89740897002")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("cpf").value("897.408.970-02"));
+
+        BDDMockito.given( service.findByCpf("897.408.970-02") ).willReturn(Optional.of(user));
+
+        mvc
+            .perform(MockMvcRequestBuilders.get(USER_API.concat("/cpf/897.408.970-02")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value(user.getName()));
+    }
+
     @Test
     @DisplayName("Deve deletar um usuario")
     public void shouldDeleteUser() throws Exception {
 
-        BDDMockito.given(service.findById(anyLong())).willReturn(Optional.of(User.builder().id(1L).build()));
+        BDDMockito.given(service.delete(1L, null)).willReturn(true);
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .delete(USER_API.concat("/" + 1));
 
         mvc.perform( request )
             .andExpect( status().isNoContent() );
+
+        Mockito.verify(service, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve retornar não encontrado ao deletar um usuario inexistente")
+    public void shouldReturnNotFoundWhenDeletingMissingUser() throws Exception {
+
+        BDDMockito.given(service.delete(1L, null)).willReturn(false);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(USER_API.concat("/" + 1));
+
+        mvc.perform( request )
+            .andExpect( status().isNotFound() )
+            .andExpect( jsonPath("errors[0]").value("Usuário não encontrado") );
+    }
+
+    @Test
+    @DisplayName("Deve retornar uma página de usuarios com o cursor da próxima página.")
+    public void shouldReturnUsersPageWithNextCursor() throws Exception {
+
+        User user = createNewUser();
+        user.setId(1L);
+
+        BDDMockito.given(service.find(Mockito.any(User.class), eq("MA"), eq(1)))
+                .willReturn(new CursorPageDTO<>(Collections.singletonList(user), "Mg"));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API)
+                .param("limit", "1")
+                .param("after", "MA")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform( request )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("content", hasSize(1)) )
+                .andExpect( jsonPath("content[0].id").value(1) )
+                .andExpect( jsonPath("content[0].cpf").value(createNewUserDTO().getCpf()) )
+                .andExpect( jsonPath("next").value("Mg") );
+    }
+
+    @Test
+    @DisplayName("Deve buscar apenas os campos informados em fields, sempre com o id.")
+    public void shouldFindOnlyRequestedFields() throws Exception {
+
+        BDDMockito.given(service.find(Mockito.any(User.class), eq(Arrays.asList("id", "name"))))
+                .willReturn(Collections.singletonList(Map.of("id", 1L, "name", "Franciele Ferreira")));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API)
+                .param("name", "Franciele")
+                .param("fields", "name")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform( request )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("$", hasSize(1)) )
+                .andExpect( jsonPath("[0].id").value(1) )
+                .andExpect( jsonPath("[0].name").value("Franciele Ferreira") )
+                .andExpect( jsonPath("[0].email").doesNotExist() );
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao buscar um campo inexistente.")
+    public void shouldRejectUnknownField() throws Exception {
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(USER_API.concat("/1"))
+                .param("fields", "name,senha")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform( request )
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath("errors[0]").value("O campo informado é inválido: senha!") );
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("Deve obter os campos informados de um usuário com o ETag quando a versão é pedida.")
+    public void shouldGetFieldsByIdWithETag() throws Exception {
+
+        BDDMockito.given(service.findById(1L, Arrays.asList("id", "email", "version")))
+                .willReturn(Optional.of(Map.of("id", 1L, "email", "email@example.com", "version", 3L)));
+
+        mvc.perform( MockMvcRequestBuilders.get(USER_API.concat("/1")).param("fields", "email,version") )
+                .andExpect( status().isOk() )
+                .andExpect( header().string("ETag", "\"3\"") )
+                .andExpect( jsonPath("email").value("email@example.com") )
+                .andExpect( jsonPath("name").doesNotExist() );
+    }
+
+    @Test
+    @DisplayName("Deve exportar os usuarios em NDJSON, um por linha.")
+    public void shouldExportUsersAsNdjson() throws Exception {
+
+        User first = createNewUser();
+        first.setId(1L);
+        User second = createNewUser();
+        second.setId(2L);
+
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).given(service).export(Mockito.any());
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(USER_API.concat("/export")))
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        mvc.perform( asyncDispatch(result) )
+                .andExpect( status().isOk() )
+                .andExpect( content().contentType("application/x-ndjson") )
+                .andExpect( content().string(matchesPattern("(\\{\"id\":\\d+,[^\\n]*}\\n){2}")) );
+    }
+
+    @Test
+    @DisplayName("Deve criar usuarios em lote retornando o resultado de cada item.")
+    public void shouldCreateUsersInBatch() throws Exception {
+
+        UserDTO dto = createNewUserDTO();
+
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willReturn(Arrays.asList(
+                UserBatchResultDTO.builder().index(0).status(UserBatchResultDTO.Status.CREATED).id(1L).build(),
+                UserBatchResultDTO.builder().index(1).status(UserBatchResultDTO.Status.DUPLICATE)
+                        .errors(Collections.singletonList("Já existe um usuário com o cpf informado!")).build()
+        ));
+
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(dto, dto));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(USER_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform( request )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("$", hasSize(2)) )
+                .andExpect( jsonPath("[0].status").value("CREATED") )
+                .andExpect( jsonPath("[0].id").value(1) )
+                .andExpect( jsonPath("[1].status").value("DUPLICATE") );
     }
 
+    @Test
+    @DisplayName("Deve atualizar parcialmente um usuario com If-Match sem carregá-lo antes, retornando o novo ETag.")
+    public void shouldUpdateUserWithIfMatch() throws Exception {
+
+        User updated = createNewUser();
+        updated.setId(1L);
+        updated.setAge(60);
+        updated.setVersion(4L);
+
+        BDDMockito.given(service.update(eq(1L), eq(3L), Mockito.any(UserDTO.class))).willReturn(Optional.of(updated));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(USER_API.concat("/1"))
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"age\":60}");
+
+        mvc.perform( request )
+                .andExpect( status().isOk() )
+                .andExpect( header().string("ETag", "\"4\"") )
+                .andExpect( jsonPath("age").value(60) );
+
+        Mockito.verify(service, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 412 quando a versão informada em If-Match não for a atual.")
+    public void shouldReturnPreconditionFailedWhenVersionIsStale() throws Exception {
+
+        BDDMockito.given(service.replace(eq(1L), eq(3L), Mockito.any(UserDTO.class)))
+                .willThrow(new PreconditionFailedException("O usuário foi alterado por outra requisição!"));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(USER_API.concat("/1"))
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(createNewUserDTO()));
+
+        mvc.perform( request )
+                .andExpect( status().isPreconditionFailed() )
+                .andExpect( jsonPath("errors[0]").value("O usuário foi alterado por outra requisição!") );
+    }
+
+    @Test
+    @DisplayName("Deve deletar um usuario com If-Match sem carregá-lo antes.")
+    public void shouldDeleteUserWithIfMatch() throws Exception {
+
+        BDDMockito.given(service.delete(1L, 3L)).willReturn(true);
+
+        mvc.perform( MockMvcRequestBuilders.delete(USER_API.concat("/1")).header("If-Match", "\"3\"") )
+                .andExpect( status().isNoContent() );
+
+        Mockito.verify(service, Mockito.never()).findById(anyLong());
+    }
 }
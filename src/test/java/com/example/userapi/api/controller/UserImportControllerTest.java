@@ -0,0 +1,70 @@
+package com.example.userapi.api.controller;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import com.example.userapi.service.UserImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Optional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = UserImportController.class)
+@AutoConfigureMockMvc
+public class UserImportControllerTest {
+
+    static String IMPORT_API = "/users/import";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    UserImportService service;
+
+    @Test
+    @DisplayName("Deve iniciar a importação de um arquivo CSV.")
+    public void shouldStartImport() throws Exception {
+
+        ImportJobDTO job = ImportJobDTO.builder().id("job-1").status(ImportJobDTO.Status.RUNNING).build();
+
+        BDDMockito.given(service.start(Mockito.any())).willReturn(job);
+
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", "name,email,cpf,age\n".getBytes());
+
+        mvc.perform(MockMvcRequestBuilders.multipart(IMPORT_API).file(file))
+                .andExpect( status().isAccepted() )
+                .andExpect( jsonPath("id").value("job-1") )
+                .andExpect( jsonPath("status").value("RUNNING") );
+    }
+
+    @Test
+    @DisplayName("Deve obter o progresso de uma importação.")
+    public void shouldReturnImportProgress() throws Exception {
+
+        ImportJobDTO job = ImportJobDTO.builder().id("job-1").status(ImportJobDTO.Status.COMPLETED)
+                .processedRows(10).createdRows(8).duplicateRows(1).invalidRows(1).build();
+
+        BDDMockito.given(service.findJob("job-1")).willReturn(Optional.of(job));
+
+        mvc.perform(MockMvcRequestBuilders.get(IMPORT_API.concat("/job-1")))
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("status").value("COMPLETED") )
+                .andExpect( jsonPath("createdRows").value(8) )
+                .andExpect( jsonPath("invalidRows").value(1) );
+    }
+}
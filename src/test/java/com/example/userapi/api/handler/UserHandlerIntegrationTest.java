@@ -0,0 +1,147 @@
+package com.example.userapi.api.handler;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.ETagUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.DisposableServer;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.userapi.util.UserUtil.createNewUsers;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb"
+})
+@ActiveProfiles({"reactive", "test"})
+class UserHandlerIntegrationTest {
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private DisposableServer reactiveServer;
+
+    private WebTestClient client;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveServer.port() + "/api/users")
+                .build();
+        users = repository.saveAll(createNewUsers(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Deve obter um usuário pelo id com o ETag da versão")
+    void shouldGetUserById() {
+
+        User user = users.get(0);
+
+        client.get().uri("/{id}", user.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", ETagUtils.of(user.getVersion()))
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(user.getName())
+                .jsonPath("$.email").isEqualTo(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 ao obter um usuário inexistente")
+    void shouldReturnNotFoundForUnknownUser() {
+
+        client.get().uri("/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Usuário não encontrado");
+    }
+
+    @Test
+    @DisplayName("Deve filtrar usuários por nome e idade como a busca do servlet")
+    void shouldFindUsersByExample() {
+
+        List<Map<String, Object>> found = client.get()
+                .uri(uri -> uri.queryParam("name", "USUARIO 1").queryParam("age", 19).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(found).extracting(user -> user.get("name")).containsExactly("Usuario 1");
+    }
+
+    @Test
+    @DisplayName("Deve enviar a listagem como NDJSON quando solicitado")
+    void shouldStreamUsersAsNdjson() {
+
+        List<Map<String, Object>> streamed = client.get()
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(streamed).extracting(user -> ((Number) user.get("id")).longValue())
+                .containsExactlyElementsOf(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve paginar usuários por cursor até a última página")
+    void shouldPageUsersByCursor() {
+
+        Map<?, ?> first = client.get()
+                .uri(uri -> uri.queryParam("limit", 20).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat((List<?>) first.get("content")).hasSize(20);
+        assertThat(first.get("next")).isNotNull();
+
+        client.get()
+                .uri(uri -> uri.queryParam("limit", 20).queryParam("after", first.get("next")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(10)
+                .jsonPath("$.next").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para um limite de página inválido")
+    void shouldRejectInvalidLimit() {
+
+        client.get()
+                .uri(uri -> uri.queryParam("limit", 0).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isNotEmpty();
+    }
+}
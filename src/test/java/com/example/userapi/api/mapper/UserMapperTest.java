@@ -0,0 +1,50 @@
+package com.example.userapi.api.mapper;
+
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.model.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.example.userapi.util.UserUtil.createNewUser;
+import static com.example.userapi.util.UserUtil.createNewUserDTO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserMapperTest {
+
+    private final UserMapper mapper = new UserMapper();
+
+    @Test
+    @DisplayName("Deve converter o DTO em um usuário sem id")
+    void shouldMapDtoToEntity() {
+
+        UserDTO dto = createNewUserDTO();
+
+        User user = mapper.toEntity(dto);
+
+        assertThat(user.getId()).isNull();
+        assertThat(user.getName()).isEqualTo(dto.getName());
+        assertThat(user.getEmail()).isEqualTo(dto.getEmail());
+        assertThat(user.getCpf()).isEqualTo(89740897002L);
+        assertThat(user.getAge()).isEqualTo(dto.getAge());
+    }
+
+    @Test
+    @DisplayName("Deve normalizar o cpf sem pontuação para a mesma forma numérica")
+    void shouldNormalizeUnformattedCpf() {
+
+        UserDTO dto = createNewUserDTO();
+        dto.setCpf("89740897002");
+
+        assertThat(mapper.toEntity(dto).getCpf()).isEqualTo(89740897002L);
+    }
+
+    @Test
+    @DisplayName("Deve converter o usuário em DTO")
+    void shouldMapEntityToDto() {
+
+        User user = createNewUser();
+        user.setId(1L);
+
+        assertThat(mapper.toDTO(user)).isEqualTo(createNewUserDTO());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userapi.api.validator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CPFValidadorTest {
+
+    private static final String ALPHABET = "0123456789.-a /";
+
+    private final CPFValidador validador = new CPFValidador();
+    private final LegacyCPFValidador legacy = new LegacyCPFValidador();
+
+    @Test
+    @DisplayName("Deve validar CPFs formatados e não formatados")
+    void shouldValidateFormattedAndUnformattedCpf() {
+
+        assertThat(validador.isValid("565.378.540-75", null)).isTrue();
+        assertThat(validador.isValid("56537854075", null)).isTrue();
+        assertThat(validador.isValid("565378540-75", null)).isTrue();
+        assertThat(validador.isValid("565.37854075", null)).isTrue();
+        assertThat(validador.isValid(null, null)).isTrue();
+
+        assertThat(validador.isValid("565.378.540-76", null)).isFalse();
+        assertThat(validador.isValid("565..378.540-75", null)).isFalse();
+        assertThat(validador.isValid("565-378.540.75", null)).isFalse();
+        assertThat(validador.isValid("111.111.111-11", null)).isFalse();
+        assertThat(validador.isValid("", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve retornar o mesmo resultado da implementação anterior para todos os dígitos verificadores")
+    void shouldMatchLegacyForEveryCheckDigitCombination() {
+
+        Random random = new Random(42);
+
+        for (int base = 0; base < 2000; base++) {
+            String digits = String.format("%09d", base == 0 ? 0 : random.nextInt(1_000_000_000));
+
+            for (int checkDigits = 0; checkDigits < 100; checkDigits++) {
+                String cpf = digits + String.format("%02d", checkDigits);
+
+                assertSameResult(cpf);
+                assertSameResult(cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9));
+                assertSameResult(cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6));
+                assertSameResult(cpf.substring(0, 9) + "-" + cpf.substring(9));
+            }
+        }
+
+        for (char digit = '0'; digit <= '9'; digit++) {
+            assertSameResult(String.valueOf(digit).repeat(11));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retornar o mesmo resultado da implementação anterior para entradas aleatórias")
+    void shouldMatchLegacyForRandomInputs() {
+
+        Random random = new Random(7);
+        StringBuilder cpf = new StringBuilder();
+
+        for (int i = 0; i < 500_000; i++) {
+            cpf.setLength(0);
+            int length = random.nextInt(17);
+
+            for (int j = 0; j < length; j++) {
+                cpf.append(random.nextInt(4) == 0
+                        ? ALPHABET.charAt(random.nextInt(ALPHABET.length()))
+                        : (char) ('0' + random.nextInt(10)));
+            }
+
+            assertSameResult(cpf.toString());
+        }
+    }
+
+    private void assertSameResult(String cpf) {
+        assertThat(validador.isValid(cpf, null))
+                .as("CPF %s", cpf)
+                .isEqualTo(legacy.isValid(cpf, null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.userapi.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Deve aumentar o limite enquanto a latência se mantém e diminuir quando ela sobe")
+    void shouldFollowLatency() {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 100, 1.5, 0.2, 0.9);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limit, RTT);
+        }
+
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        saturate(limit, RTT * 10);
+
+        assertThat(limit.getLimit()).isLessThan(grown).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Não deve aumentar o limite enquanto ele não é usado")
+    void shouldNotGrowWhenAppLimited() {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 100, 1.5, 0.2, 0.9);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+            limit.release(RTT, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite a cada requisição com erro, sem passar do mínimo")
+    void shouldBackOffOnDrops() {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 8, 100, 1.5, 0.2, 0.9);
+
+        limit.tryAcquire(1.0);
+        limit.release(RTT, true);
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(RTT, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(8);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve recusar a prioridade com a menor fração do limite primeiro")
+    void shouldRejectLowerShareFirst() {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 100, 1.5, 0.2, 0.9);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(0.5)).isTrue();
+        }
+
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+        assertThat(limit.getInFlight()).isEqualTo(6);
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimit limit, long rtt) {
+
+        int acquired = 0;
+
+        while (limit.tryAcquire(1.0)) {
+            acquired++;
+        }
+
+        for (int i = 0; i < acquired; i++) {
+            limit.release(rtt, false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.userapi.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimit limit;
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        limit = new AdaptiveConcurrencyLimit(10, 5, 100, 1.5, 0.2, 0.9);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(limit, new ObjectMapper(), meterRegistry, 0.5, 1.0, Duration.ofMillis(1500));
+    }
+
+    @Test
+    @DisplayName("Deve recusar as leituras com 503 e Retry-After antes das escritas")
+    void shouldShedReadsBeforeWrites() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire(1.0);
+        }
+
+        MockHttpServletResponse read = filter("GET");
+        MockHttpServletResponse write = filter("POST");
+
+        assertThat(read.getStatus()).isEqualTo(503);
+        assertThat(read.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(read.getContentAsString())
+                .isEqualTo("{\"errors\":[\"O serviço está sobrecarregado, tente novamente em instantes!\"]}");
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("users.concurrency.rejected").tag("priority", "read").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.concurrency.rejected").tag("priority", "write").counter().count()).isZero();
+        assertThat(meterRegistry.get("users.concurrency.in-flight").gauge().value()).isEqualTo(5);
+        assertThat(meterRegistry.get("users.concurrency.limit").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga ao fim da requisição")
+    void shouldReleaseSlot() throws Exception {
+
+        assertThat(filter("PUT").getStatus()).isEqualTo(200);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    private MockHttpServletResponse filter(String method) throws Exception {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+
+        filter.doFilter(new MockHttpServletRequest(method, "/users"), response, new MockFilterChain());
+
+        return response;
+    }
+}
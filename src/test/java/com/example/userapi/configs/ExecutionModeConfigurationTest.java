@@ -0,0 +1,59 @@
+package com.example.userapi.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionModeConfigurationTest {
+
+    private final ExecutionModeConfiguration configuration = new ExecutionModeConfiguration();
+
+    @Test
+    @DisplayName("Deve executar as tarefas em threads virtuais, ou falhar na inicialização antes do Java 21")
+    void shouldRunTasksOnVirtualThreads() throws Exception {
+
+        if (Runtime.version().feature() < 21) {
+            assertThatThrownBy(configuration::virtualThreadExecutor)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Java 21");
+            return;
+        }
+
+        ExecutorService executor = configuration.virtualThreadExecutor();
+        try {
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get(5, TimeUnit.SECONDS);
+
+            assertThat(virtual).isEqualTo(true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve dimensionar o pool de conexões pelos processadores, a menos que ele seja configurado")
+    void shouldSizeConnectionPoolUnlessConfigured() {
+
+        int expected = ExecutionModeConfiguration.connectionPoolSize(Runtime.getRuntime().availableProcessors());
+
+        try (HikariDataSource automatic = new HikariDataSource(); HikariDataSource configured = new HikariDataSource()) {
+            configured.setMaximumPoolSize(40);
+
+            ExecutionModeConfiguration.connectionPoolSizer(new MockEnvironment())
+                    .postProcessBeforeInitialization(automatic, "dataSource");
+            ExecutionModeConfiguration.connectionPoolSizer(new MockEnvironment()
+                            .withProperty(ExecutionModeConfiguration.MAXIMUM_POOL_SIZE_PROPERTY, "40"))
+                    .postProcessBeforeInitialization(configured, "dataSource");
+
+            assertThat(automatic.getMaximumPoolSize()).isEqualTo(expected);
+            assertThat(configured.getMaximumPoolSize()).isEqualTo(40);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.model.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.example.userapi.util.UserUtil.createNewUserDTO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository.deleteAll();
+        body = objectMapper.writeValueAsString(createNewUserDTO());
+    }
+
+    @Test
+    @DisplayName("Deve repetir a primeira resposta para a mesma chave sem criar o usuário de novo")
+    void shouldReplayFirstResponse() throws Exception {
+
+        String key = UUID.randomUUID().toString();
+        double replayed = replayedCount();
+
+        MockHttpServletResponse first = create(key, body);
+        MockHttpServletResponse retry = create(key, body);
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getHeader("ETag")).isEqualTo(first.getHeader("ETag"));
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(replayedCount()).isEqualTo(replayed + 1);
+
+        // Sem a chave, a repetição é uma nova requisição e esbarra no cpf já cadastrado
+        mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave em uma requisição com outro corpo")
+    void shouldRejectKeyReusedWithAnotherBody() throws Exception {
+
+        String key = UUID.randomUUID().toString();
+
+        create(key, body);
+
+        mvc.perform(post("/users").header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("email@example.com", "outro@example.com")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("errors[0]").value("A chave de idempotência já foi usada em outra requisição!"));
+    }
+
+    @Test
+    @DisplayName("Deve executar uma única vez as requisições simultâneas com a mesma chave")
+    void shouldExecuteConcurrentDuplicatesOnce() throws Exception {
+
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<CompletableFuture<MockHttpServletResponse>> futures = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return create(key, body);
+                        } catch (Exception ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }, executor))
+                    .collect(Collectors.toList());
+
+            List<MockHttpServletResponse> responses = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+            assertThat(responses).allSatisfy(response -> assertThat(response.getStatus()).isEqualTo(201));
+            assertThat(responses).filteredOn(response -> response.getHeader(IdempotencyFilter.REPLAYED_HEADER) == null)
+                    .hasSize(1);
+            assertThat(repository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma chave de idempotência vazia")
+    void shouldRejectBlankKey() throws Exception {
+
+        mvc.perform(post("/users").header(IdempotencyFilter.KEY_HEADER, " ")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertThat(repository.count()).isZero();
+    }
+
+    private MockHttpServletResponse create(String key, String content) throws Exception {
+        return mvc.perform(post("/users").header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(content))
+                .andReturn().getResponse();
+    }
+
+    private double replayedCount() {
+        return meterRegistry.counter("users.idempotency.requests", "result", "replayed").count();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userapi.configs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcIdempotencyStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotencykeys;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists tb_idempotency_keys");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__create_tb_idempotency_keys.sql"))
+                .execute(dataSource);
+    }
+
+    @Test
+    @DisplayName("Deve reservar a chave, fazer aguardar quem chega durante a execução e repetir a resposta gravada")
+    void shouldReserveWaitAndReplay() throws Exception {
+
+        JdbcIdempotencyStore store = store(Duration.ofMinutes(1));
+        IdempotentResponse response = new IdempotentResponse("abc", 201, "application/json", "\"0\"", null,
+                "{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(store.acquire("chave", Duration.ZERO)).isNull();
+        assertThatThrownBy(() -> store.acquire("chave", Duration.ofMillis(30))).isInstanceOf(TimeoutException.class);
+
+        store.complete("chave", response);
+
+        IdempotentResponse replayed = store.acquire("chave", Duration.ZERO);
+        assertThat(replayed).usingRecursiveComparison().isEqualTo(response);
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave de uma requisição sem resposta e a de uma reserva expirada")
+    void shouldReleaseAndExpireReservations() throws Exception {
+
+        JdbcIdempotencyStore store = store(Duration.ZERO);
+
+        assertThat(store.acquire("liberada", Duration.ZERO)).isNull();
+        store.release("liberada");
+        assertThat(store.acquire("liberada", Duration.ZERO)).isNull();
+
+        // Com reserva de duração zero, a chave de uma instância que caiu fica disponível de imediato
+        assertThat(store.acquire("liberada", Duration.ZERO)).isNull();
+
+        store.deleteExpired();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tb_idempotency_keys", Integer.class)).isZero();
+    }
+
+    private JdbcIdempotencyStore store(Duration lease) {
+        return new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), lease, Duration.ofMillis(10));
+    }
+}
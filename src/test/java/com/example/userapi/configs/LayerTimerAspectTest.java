@@ -0,0 +1,68 @@
+package com.example.userapi.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:layertimer",
+        "management.metrics.distribution.slo.[users.layer]=25ms,100ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LayerTimerAspectTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deve medir as três camadas de uma busca por id sem resultado como não encontrada")
+    void shouldTimeEachLayerAsNotFound() throws Exception {
+
+        mvc.perform(get("/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertThat(count("controller", "UserController.getById", "not_found")).isEqualTo(1);
+        assertThat(count("service", "UserService.findById", "not_found")).isEqualTo(1);
+        assertThat(count("repository", "UserRepository.findById", "not_found")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve medir um cpf inválido como erro de negócio e publicar o histograma com os limites de SLO")
+    void shouldTimeBusinessErrorsWithSloBuckets() throws Exception {
+
+        mvc.perform(get("/users/cpf/{cpf}", "123")).andExpect(status().isBadRequest());
+
+        assertThat(count("controller", "UserController.getByCpf", "business_error")).isEqualTo(1);
+        assertThat(count("service", "UserService.findByCpf", "business_error")).isEqualTo(1);
+
+        Timer timer = timer("service", "UserService.findByCpf", "business_error");
+        assertThat(timer.takeSnapshot().histogramCounts())
+                .anySatisfy(bucket -> assertThat(bucket.bucket(TimeUnit.MILLISECONDS)).isEqualTo(100));
+    }
+
+    private long count(String layer, String operation, String outcome) {
+        Timer timer = timer(layer, operation, outcome);
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Timer timer(String layer, String operation, String outcome) {
+        return meterRegistry.find(LayerTimerAspect.TIMER_NAME)
+                .tags("layer", layer, "operation", operation, "outcome", outcome)
+                .timer();
+    }
+}
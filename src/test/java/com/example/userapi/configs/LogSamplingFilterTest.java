@@ -0,0 +1,61 @@
+package com.example.userapi.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingFilterTest {
+
+    private static final Logger log = LogManager.getLogger(LogSamplingFilterTest.class);
+
+    @Test
+    @DisplayName("Deve registrar apenas WARN ou acima durante uma requisição fora da amostra")
+    void shouldOnlyLogWarningsOutsideSample() throws Exception {
+
+        List<Boolean> enabled = new ArrayList<>();
+
+        new LogSamplingFilter(0).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest request, HttpServletResponse response) {
+                        enabled.add(log.isInfoEnabled());
+                        enabled.add(log.isWarnEnabled());
+                    }
+                }));
+
+        assertThat(enabled).containsExactly(false, true);
+        assertThat(ThreadContext.containsKey(LogSamplingFilter.SAMPLED_KEY)).isFalse();
+        assertThat(log.isInfoEnabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve registrar todos os níveis quando todas as requisições fazem parte da amostra")
+    void shouldLogEverythingWhenFullySampled() throws Exception {
+
+        List<Boolean> enabled = new ArrayList<>();
+
+        new LogSamplingFilter(1).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest request, HttpServletResponse response) {
+                        enabled.add(log.isInfoEnabled());
+                        enabled.add(ThreadContext.containsKey(LogSamplingFilter.SAMPLED_KEY));
+                    }
+                }));
+
+        assertThat(enabled).containsExactly(true, false);
+    }
+}
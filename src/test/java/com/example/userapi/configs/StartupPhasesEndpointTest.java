@@ -0,0 +1,62 @@
+package com.example.userapi.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupPhasesEndpointTest {
+
+    @Test
+    @DisplayName("Deve informar a duração das fases de inicialização registradas")
+    void shouldReportRecordedPhases() {
+
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+
+        StartupStep refresh = startup.start("spring.context.refresh");
+        startup.start("spring.beans.instantiate").tag("beanName", "dataSource").end();
+        startup.start("spring.beans.instantiate").tag("beanName", "&entityManagerFactory").end();
+        refresh.end();
+        startup.start(InitiateDatabaseRecords.SEED_STEP).end();
+
+        StartupPhasesEndpoint endpoint = new StartupPhasesEndpoint(startup, Duration.ofSeconds(30));
+        endpoint.onReady(readyEvent(Duration.ofSeconds(5)));
+
+        Map<String, Object> report = endpoint.report();
+
+        assertThat(report)
+                .containsEntry("targetMs", 30_000L)
+                .containsEntry("totalMs", 5_000L)
+                .containsEntry("withinTarget", true);
+        assertThat(endpoint.phases()).containsOnlyKeys("contextRefresh", "jpaBootstrap", "seeding");
+        assertThat(startup.getBufferedTimeline().getEvents()).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("Deve indicar quando a inicialização ultrapassa o tempo alvo")
+    void shouldReportStartupAboveTarget() {
+
+        StartupPhasesEndpoint endpoint = new StartupPhasesEndpoint(ApplicationStartup.DEFAULT, Duration.ofSeconds(30));
+
+        assertThat(endpoint.report()).containsEntry("withinTarget", null);
+
+        endpoint.onReady(readyEvent(Duration.ofSeconds(45)));
+
+        assertThat(endpoint.report())
+                .containsEntry("totalMs", 45_000L)
+                .containsEntry("withinTarget", false)
+                .containsEntry("phases", Map.of());
+    }
+
+    private static ApplicationReadyEvent readyEvent(Duration timeTaken) {
+        return new ApplicationReadyEvent(new SpringApplication(), new String[0], null, timeTaken);
+    }
+}
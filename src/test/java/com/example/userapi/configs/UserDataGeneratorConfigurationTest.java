@@ -0,0 +1,54 @@
+package com.example.userapi.configs;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.UserDataGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:generator",
+        "users.generator.count=2000",
+        "users.generator.threads=3",
+        "users.generator.chunk-size=300",
+        "users.generator.exit-on-completion=false"
+})
+@ActiveProfiles({"data-generator", "test"})
+class UserDataGeneratorConfigurationTest {
+
+    @Autowired
+    private UserRepository repository;
+
+    @Test
+    @DisplayName("Deve inserir em paralelo os usuários gerados para a semente configurada")
+    void shouldInsertGeneratedUsers() {
+
+        List<User> users = repository.findAll(Sort.by("cpf"));
+        List<User> expected = new UserDataGenerator(42).users(0, 2000);
+        expected.sort(Comparator.comparing(User::getCpf));
+
+        assertThat(users).hasSize(2000);
+        assertThat(users)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id", "version")
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Deve recusar um intervalo de índices além do limite de cpfs únicos")
+    void shouldRejectRangeBeyondLimit() {
+
+        assertThatThrownBy(() -> UserDataGeneratorConfiguration.generate(repository, new UserDataGenerator(42),
+                UserDataGenerator.MAX_USERS - 1, 2, 1, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.userapi.model.repository;
 
 import com.example.userapi.model.entity.User;
+import com.example.userapi.util.SqlStatementCounter;
 import com.example.userapi.util.UserUtil;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -8,14 +9,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static com.example.userapi.util.UserUtil.createNewUser;
+import static com.example.userapi.util.UserUtil.createNewUsers;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -159,7 +163,7 @@ public class UserRepositoryTest {
     @DisplayName("Deve retornar verdadeiro quando existir um usuario com o cpf informado")
     public void returnTrueWhenCpfExists(){
 
-        String cpf = "748.531.580-30";
+        Long cpf = 74853158030L;
         User userToSaved = createNewUser();
         userToSaved.setCpf(cpf);
 
@@ -171,6 +175,17 @@ public class UserRepositoryTest {
 
     }
 
+    @Test
+    @Transactional
+    @DisplayName("Deve obter o usuario pelo cpf na forma numérica")
+    public void findUserByCpf(){
+
+        User userSaved = this.repository.save(createNewUser());
+
+        Assertions.assertThat(this.repository.findByCpf(89740897002L)).contains(userSaved);
+        Assertions.assertThat(this.repository.findByCpf(89740897003L)).isEmpty();
+    }
+
     @Test
     @Transactional
     @DisplayName("Deve retornar verdadeiro quando existir um usuario com o email informado")
@@ -192,7 +207,7 @@ public class UserRepositoryTest {
     @DisplayName("Deve retornar falso quando não existir um usuario com o cpf informado")
     public void returnFalseWhenCpfDoesntExists(){
 
-        String cpf = "243.774.040-67";
+        Long cpf = 24377404067L;
 
         boolean exists = this.repository.existsByCpf(cpf);
 
@@ -218,6 +233,78 @@ public class UserRepositoryTest {
         User userToSaved = createNewUser();
         userToSaved.setName(null);
         Assertions.assertThatExceptionOfType(ConstraintViolationException.class)
-                .isThrownBy(() -> this.repository.save(userToSaved));
+                .isThrownBy(() -> this.repository.saveAndFlush(userToSaved));
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Deve paginar por cursor até o fim de uma base grande buscando cada página pelo id, sem offset")
+    public void pageThroughLargeDatasetWithCursor(){
+
+        int total = 5000;
+        int limit = 100;
+
+        this.repository.saveAll(createNewUsers(total));
+
+        Example<User> filter = UserUtil.createFilterUser(new User());
+
+        List<Long> ids = new ArrayList<>();
+        Long after = null;
+
+        while (true) {
+            SqlStatementCounter.reset();
+            List<User> page = this.repository.findAllAfter(filter, after, limit);
+
+            Assertions.assertThat(page.size()).isLessThanOrEqualTo(limit);
+
+            if (after != null) {
+                // Cada página parte do último id da anterior: a base não lê nem descarta as linhas já vistas
+                Assertions.assertThat(SqlStatementCounter.statements()).singleElement().satisfies(sql -> Assertions.assertThat(sql)
+                        .doesNotContainIgnoringCase("offset")
+                        .containsPattern("(?i)\\bid\\s*>\\s*\\?"));
+            }
+
+            if (page.isEmpty()) {
+                break;
+            }
+
+            page.forEach(user -> ids.add(user.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+
+        Assertions.assertThat(ids).hasSize(total).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Deve paginar por cursor respeitando o filtro informado")
+    public void pageWithCursorAndFilter(){
+
+        this.repository.saveAll(createNewUsers(400));
+
+        User user = User.builder().age(20).build();
+
+        Example<User> filter = Example.of(user, ExampleMatcher.matching().withIgnoreNullValues());
+
+        List<User> firstPage = this.repository.findAllAfter(filter, null, 2);
+        List<User> secondPage = this.repository.findAllAfter(filter, firstPage.get(1).getId(), 2);
+
+        Assertions.assertThat(firstPage).hasSize(2).allMatch(found -> found.getAge() == 20);
+        Assertions.assertThat(secondPage).hasSize(2).allMatch(found -> found.getAge() == 20);
+        Assertions.assertThat(secondPage.get(0).getId()).isGreaterThan(firstPage.get(1).getId());
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Deve percorrer todos os usuários em ordem de id")
+    public void streamAllUsersInIdOrder(){
+
+        this.repository.saveAll(createNewUsers(2500));
+
+        List<Long> ids = new ArrayList<>();
+
+        this.repository.streamAll(user -> ids.add(user.getId()));
+
+        Assertions.assertThat(ids).hasSize(2500).isSorted();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.example.userapi.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryViewTest {
+
+    @Test
+    @DisplayName("Deve reaplicar sobre a nova versão a escrita repetida após um commit confirmado durante a reconstrução")
+    void shouldKeepWritesCommittedDuringRebuild() {
+
+        InMemoryView<Set<Long>> view = new InMemoryView<>(new TreeSet<>());
+        List<String> calls = new ArrayList<>();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            InMemoryView.nowAndAfterCommit(() -> {
+                calls.add("write");
+                view.apply(ids -> ids.add(1L));
+            });
+
+            // A reconstrução começa antes do commit e sua leitura não enxerga o id 1
+            view.startRebuild();
+            Set<Long> rebuilt = new TreeSet<>(Set.of(2L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            view.finishRebuild(rebuilt);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(calls).hasSize(2);
+        assertThat(view.current()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Deve executar a escrita uma única vez fora de uma transação")
+    void shouldWriteOnceOutsideTransaction() {
+
+        List<String> calls = new ArrayList<>();
+
+        InMemoryView.nowAndAfterCommit(() -> calls.add("now"));
+        InMemoryView.afterCommit(() -> calls.add("after"));
+
+        assertThat(calls).containsExactly("now", "after");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.util.UserUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class UserColumnsTest {
+
+    @Test
+    @DisplayName("Deve filtrar como a consulta por exemplo, em ordem de id")
+    void shouldFilterLikeExampleQuery() {
+
+        UserColumns columns = columnsWith(UserUtil.createNewUsers(200));
+
+        assertThat(columns.find(User.builder().name("RIO 12").build(), null, Integer.MAX_VALUE))
+                .extracting(User::getName)
+                .containsExactly("Usuario 12", "Usuario 120", "Usuario 121", "Usuario 122", "Usuario 123",
+                        "Usuario 124", "Usuario 125", "Usuario 126", "Usuario 127", "Usuario 128", "Usuario 129");
+        assertThat(columns.find(User.builder().email("o15@").age(33).build(), null, Integer.MAX_VALUE))
+                .extracting(User::getId, User::getEmail, User::getAge)
+                .containsExactly(tuple(16L, "usuario15@example.com", 33));
+        assertThat(columns.find(User.builder().name("Usuario").build(), 150L, 3))
+                .extracting(User::getId)
+                .containsExactly(151L, 152L, 153L);
+        assertThat(columns.find(User.builder().name("Usuário").build(), null, Integer.MAX_VALUE)).hasSize(200);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar acentos como a collation do MySQL, com termos e valores acentuados ou não")
+    void shouldIgnoreAccentsLikeDatabaseCollation() {
+
+        UserColumns columns = columnsWith(UserUtil.createNewUsers(3));
+        columns.put(user(10L, "João Vicente", 1L));
+        columns.put(user(11L, "Joao Pedro", 1L));
+        columns.put(user(12L, "Conceição", 1L));
+
+        assertThat(columns.find(User.builder().name("joao").build(), null, 10))
+                .extracting(User::getId)
+                .containsExactly(10L, 11L);
+        assertThat(columns.find(User.builder().name("JOÃO V").build(), null, 10))
+                .extracting(User::getId)
+                .containsExactly(10L);
+        assertThat(columns.find(User.builder().name("ceicao").build(), null, 10))
+                .extracting(User::getName)
+                .containsExactly("Conceição");
+    }
+
+    @Test
+    @DisplayName("Deve aplicar alterações e remoções sem regredir a versão")
+    void shouldApplyChangesWithoutVersionRegression() {
+
+        UserColumns columns = columnsWith(UserUtil.createNewUsers(10));
+
+        User renamed = user(5L, "Usuário Acentuado com Nome Bem Mais Longo", 2L);
+        columns.put(renamed);
+        columns.put(user(5L, "Nome Antigo", 1L));
+        columns.remove(3L);
+        columns.put(user(0L, "Inserido Fora de Ordem", 0L));
+
+        assertThat(columns.size()).isEqualTo(10);
+        assertThat(columns.find(User.builder().name("ACENTUADO").build(), null, 10))
+                .extracting(User::getName, User::getVersion)
+                .containsExactly(tuple(renamed.getName(), 2L));
+        assertThat(columns.find(User.builder().name("usuário").build(), null, 10)).hasSize(9);
+        assertThat(columns.find(new User(), null, Integer.MAX_VALUE))
+                .extracting(User::getId)
+                .containsExactly(0L, 1L, 2L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler as linhas válidas do arquivo mapeado em memória")
+    void shouldWriteAndReadMappedFile(@TempDir Path directory) throws IOException {
+
+        UserColumns columns = columnsWith(UserUtil.createNewUsers(1000));
+        columns.remove(500L);
+        columns.put(user(7L, "Renomeado", 1L));
+        columns.synced(1_700_000_000_000L, 1000L);
+
+        Path path = directory.resolve("users.snapshot");
+        columns.write(path);
+
+        UserColumns read = UserColumns.read(path);
+
+        assertThat(read.size()).isEqualTo(999);
+        assertThat(read.syncedAt()).isEqualTo(1_700_000_000_000L);
+        assertThat(read.syncedUpTo()).isEqualTo(1000L);
+        assertThat(read.find(new User(), null, Integer.MAX_VALUE))
+                .containsExactlyElementsOf(columns.find(new User(), null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Deve ocupar menos de 96 bytes por usuário")
+    void shouldStayUnderHeapTargetPerUser() {
+
+        int total = 100_000;
+
+        UserColumns columns = columnsWith(UserUtil.createNewUsers(total));
+
+        assertThat(columns.usedBytes() / total).isLessThan(96);
+    }
+
+    private static UserColumns columnsWith(List<User> users) {
+
+        UserColumns columns = new UserColumns();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(i + 1L);
+            user.setVersion(0L);
+            columns.put(user);
+        }
+
+        return columns;
+    }
+
+    private static User user(Long id, String name, Long version) {
+
+        User user = UserUtil.createNewUser();
+        user.setId(id);
+        user.setName(name);
+        user.setVersion(version);
+
+        return user;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.ImportJobDTO;
+import com.example.userapi.api.dto.ImportRowErrorDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.service.UserImportService;
+import com.example.userapi.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.userapi.util.UserUtil.createNewUserDTOs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportServiceImplTest {
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Deve importar um arquivo CSV reportando linhas inválidas e duplicadas")
+    void shouldImportCsvReportingInvalidAndDuplicatedRows() throws Exception {
+
+        int total = UserImportServiceImpl.CHUNK_SIZE * 2 + 500;
+        List<UserDTO> users = createNewUserDTOs(total, 10_000);
+
+        userService.saveAll(users.subList(0, 1));
+
+        StringBuilder csv = new StringBuilder("name,email,cpf,age\n");
+        users.forEach(user -> csv.append('"').append(user.getName()).append('"').append(',')
+                .append(user.getEmail()).append(',')
+                .append(user.getCpf()).append(',')
+                .append(user.getAge()).append('\n'));
+        csv.append("Cpf Invalido,invalido@example.com,111.111.111-11,30\n");
+        csv.append("Idade Invalida,idade@example.com,").append(users.get(1).getCpf()).append(",abc\n");
+        csv.append("Cpf Repetido,repetido@example.com,").append(users.get(1).getCpf().replaceAll("\\D", "")).append(",30\n");
+        csv.append("Email Repetido,").append(users.get(2).getEmail().toUpperCase()).append(",897.408.970-02,30\n");
+
+        ImportJobDTO job = importService.start(new MockMultipartFile(
+                "file", "users.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        ImportJobDTO finished = awaitCompletion(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+        assertThat(finished.getProcessedRows()).isEqualTo(total + 4);
+        assertThat(finished.getCreatedRows()).isEqualTo(total - 1);
+        assertThat(finished.getDuplicateRows()).isEqualTo(3);
+        assertThat(finished.getInvalidRows()).isEqualTo(2);
+        assertThat(finished.getErrors()).extracting(ImportRowErrorDTO::getLine)
+                .containsExactlyInAnyOrder(2L, total + 2L, total + 3L, total + 4L, total + 5L);
+        assertThat(repository.count()).isEqualTo(total);
+    }
+
+    @Test
+    @DisplayName("Deve repetir linha a linha o bloco desfeito por uma escrita concorrente, rejeitando só a duplicada")
+    void shouldRetryRowsAloneWhenChunkIsRolledBack() throws Exception {
+
+        List<UserDTO> users = createNewUserDTOs(3, 20_000);
+        String takenEmail = users.get(1).getEmail();
+
+        UserService concurrentService = Mockito.mock(UserService.class);
+        Mockito.when(concurrentService.insertAll(anyList())).thenAnswer(invocation -> {
+            List<User> chunk = invocation.getArgument(0);
+
+            if (chunk.size() > 1 || chunk.get(0).getEmail().equals(takenEmail)) {
+                throw new BusinessException("Já existe um usuário com o email informado!");
+            }
+
+            return List.of(UserBatchResultDTO.builder().index(0).status(UserBatchResultDTO.Status.CREATED).id(1L).build());
+        });
+
+        UserImportServiceImpl concurrentImport = new UserImportServiceImpl(concurrentService, userMapper, validator);
+
+        try {
+            String csv = users.stream()
+                    .map(user -> user.getName() + "," + user.getEmail() + "," + user.getCpf() + "," + user.getAge())
+                    .collect(Collectors.joining("\n", "name,email,cpf,age\n", "\n"));
+
+            ImportJobDTO job = concurrentImport.start(new MockMultipartFile(
+                    "file", "users.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+            ImportJobDTO finished = awaitCompletion(concurrentImport, job.getId());
+
+            assertThat(finished.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+            assertThat(finished.getProcessedRows()).isEqualTo(3);
+            assertThat(finished.getCreatedRows()).isEqualTo(2);
+            assertThat(finished.getDuplicateRows()).isEqualTo(1);
+            assertThat(finished.getErrors()).extracting(ImportRowErrorDTO::getLine, ImportRowErrorDTO::getErrors)
+                    .containsExactly(tuple(3L, List.of("Já existe um usuário com o email informado!")));
+            Mockito.verify(concurrentService, Mockito.times(1 + users.size())).insertAll(anyList());
+        } finally {
+            concurrentImport.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve falhar a importação quando o cabeçalho não possuir as colunas esperadas")
+    void shouldFailImportWithInvalidHeader() throws Exception {
+
+        ImportJobDTO job = importService.start(new MockMultipartFile(
+                "file", "users.csv", "text/csv", "nome;idade\nJose;30\n".getBytes(StandardCharsets.UTF_8)));
+
+        ImportJobDTO finished = awaitCompletion(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobDTO.Status.FAILED);
+        assertThat(finished.getErrors().get(0).getErrors())
+                .containsExactly("O cabeçalho do arquivo deve conter as colunas name, email, cpf e age!");
+    }
+
+    private ImportJobDTO awaitCompletion(String jobId) throws InterruptedException {
+        return awaitCompletion(importService, jobId);
+    }
+
+    private static ImportJobDTO awaitCompletion(UserImportService importService, String jobId) throws InterruptedException {
+
+        for (int i = 0; i < 600; i++) {
+            ImportJobDTO job = importService.findJob(jobId).orElseThrow();
+
+            if (job.getStatus() != ImportJobDTO.Status.RUNNING) {
+                return job;
+            }
+
+            Thread.sleep(50);
+        }
+
+        throw new AssertionError("A importação não foi concluída a tempo");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.BDDMockito.given;
+
+class UserKeyFilterTest {
+
+    @Test
+    @DisplayName("Deve dimensionar o filtro pela quantidade de usuários com folga na reconstrução")
+    void shouldSizeFilterFromRowCount() {
+
+        UserRepository repository = Mockito.mock(UserRepository.class);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserKeyFilter filter = new UserKeyFilter(repository, meterRegistry);
+
+        double minimumBits = bits(meterRegistry);
+
+        given(repository.count()).willReturn(10_000_000L);
+        filter.rebuild();
+
+        assertThat(bits(meterRegistry)).isCloseTo(minimumBits * 15, withinPercentage(1));
+    }
+
+    private static double bits(MeterRegistry meterRegistry) {
+        return meterRegistry.get("users.key.filter.bits").tag("type", "cpf").gauge().value();
+    }
+}
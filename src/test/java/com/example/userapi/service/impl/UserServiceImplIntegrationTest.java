@@ -0,0 +1,370 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.model.repository.UserRepositoryCustomImpl;
+import com.example.userapi.service.UserService;
+import com.example.userapi.util.SqlStatementCounter;
+import com.example.userapi.util.UserUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.userapi.util.UserUtil.createNewUser;
+import static com.example.userapi.util.UserUtil.createNewUserDTO;
+import static com.example.userapi.util.UserUtil.createNewUserDTOs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"users.search-index.enabled=true", "spring.datasource.url=jdbc:h2:mem:search"})
+@ActiveProfiles("test")
+@Log4j2
+class UserServiceImplIntegrationTest {
+
+    @Autowired
+    private UserService service;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Transactional
+    @DisplayName("Deve criar usuários em lote com menos comandos que a criação individual")
+    void shouldSaveAllWithFewerStatementsThanSingleCreates() {
+
+        int total = 2000;
+
+        List<UserDTO> single = createNewUserDTOs(total, 0);
+        List<UserDTO> batch = createNewUserDTOs(total, total);
+
+        SqlStatementCounter.reset();
+        single.forEach(dto -> service.save(userMapper.toEntity(dto)));
+        List<String> singleStatements = SqlStatementCounter.statements();
+
+        SqlStatementCounter.reset();
+        List<UserBatchResultDTO> results = service.saveAll(batch);
+        List<String> batchStatements = SqlStatementCounter.statements();
+
+        log.info("Criação de {} usuários: individual {} comandos ({} inserts), em lote {} comandos ({} inserts)",
+                total, singleStatements.size(), inserts(singleStatements), batchStatements.size(), inserts(batchStatements));
+
+        assertThat(results).allMatch(result -> result.getStatus() == UserBatchResultDTO.Status.CREATED && result.getId() != null);
+        assertThat(inserts(singleStatements)).isEqualTo(total);
+        assertThat(inserts(batchStatements)).isEqualTo(total / UserRepositoryCustomImpl.INSERT_BATCH_SIZE);
+        assertThat(batchStatements.size()).isLessThan(singleStatements.size() / 10);
+    }
+
+    private static long inserts(List<String> statements) {
+        return statements.stream().filter(statement -> statement.toLowerCase(Locale.ROOT).startsWith("insert")).count();
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Deve reportar como duplicados os usuários do lote que já existem na base")
+    void shouldReportDuplicatesAgainstDatabase() {
+
+        List<UserDTO> users = createNewUserDTOs(10, 0);
+
+        service.saveAll(users.subList(0, 5));
+
+        List<UserBatchResultDTO> results = service.saveAll(users);
+
+        assertThat(results.subList(0, 5)).allMatch(result -> result.getStatus() == UserBatchResultDTO.Status.DUPLICATE);
+        assertThat(results.subList(5, 10)).allMatch(result -> result.getStatus() == UserBatchResultDTO.Status.CREATED);
+    }
+
+    @Test
+    @DisplayName("Deve criar apenas um usuário quando criações concorrentes usam o mesmo cpf")
+    void shouldCreateOnlyOneUserWhenConcurrentCreatesShareCpf() throws Exception {
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<User>> futures = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                User user = createNewUser();
+                user.setEmail("concorrente" + i + "@example.com");
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return service.save(user);
+                }));
+            }
+
+            start.countDown();
+
+            int created = 0;
+            List<Throwable> errors = new ArrayList<>();
+
+            for (Future<User> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                    created++;
+                } catch (ExecutionException ex) {
+                    errors.add(ex.getCause());
+                }
+            }
+
+            assertThat(created).isEqualTo(1);
+            assertThat(errors).hasSize(threads - 1)
+                    .allSatisfy(error -> assertThat(error)
+                            .isInstanceOf(BusinessException.class)
+                            .hasMessage("Já existe um usuário com o cpf informado!"));
+            assertThat(repository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aplicar apenas uma das atualizações concorrentes feitas sobre a mesma versão")
+    void shouldApplyOnlyOneConcurrentUpdateForSameVersion() throws Exception {
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            User user = service.save(createNewUser());
+            Long version = user.getVersion();
+
+            List<Future<Optional<User>>> futures = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                UserDTO patch = UserDTO.builder().age(30 + i).build();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return service.update(user.getId(), version, patch);
+                }));
+            }
+
+            start.countDown();
+
+            List<User> updated = new ArrayList<>();
+            List<Throwable> errors = new ArrayList<>();
+
+            for (Future<Optional<User>> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS).ifPresent(updated::add);
+                } catch (ExecutionException ex) {
+                    errors.add(ex.getCause());
+                }
+            }
+
+            assertThat(updated).hasSize(1);
+            assertThat(updated.get(0).getVersion()).isEqualTo(version + 1);
+            assertThat(errors).hasSize(threads - 1).allMatch(PreconditionFailedException.class::isInstance);
+            assertThat(repository.findById(user.getId())).get()
+                    .extracting(User::getAge, User::getVersion)
+                    .containsExactly(updated.get(0).getAge(), version + 1);
+            assertThat(service.update(user.getId() + 1000, version, UserDTO.builder().age(40).build())).isEmpty();
+        } finally {
+            executor.shutdownNow();
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve atualizar sem If-Match com um UPDATE e relendo o usuário, incrementando a versão")
+    void shouldUpdateWithoutIfMatch() {
+
+        try {
+            User user = service.save(createNewUser());
+
+            SqlStatementCounter.reset();
+            User first = service.update(user.getId(), null, UserDTO.builder().age(30).build()).orElseThrow();
+
+            assertThat(SqlStatementCounter.statements()).hasSize(2)
+                    .satisfies(statements -> assertThat(statements.get(0)).startsWith("update"))
+                    .satisfies(statements -> assertThat(statements.get(1)).startsWith("select"));
+
+            User second = service.update(user.getId(), null, UserDTO.builder().age(31).build()).orElseThrow();
+
+            assertThat(first.getVersion()).isEqualTo(user.getVersion() + 1);
+            assertThat(second.getVersion()).isEqualTo(user.getVersion() + 2);
+            assertThat(service.findById(user.getId())).get().extracting(User::getAge).isEqualTo(31);
+            assertThat(service.update(user.getId() + 1000, null, UserDTO.builder().age(40).build())).isEmpty();
+        } finally {
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve substituir o usuário com If-Match usando um único UPDATE")
+    void shouldReplaceWithSingleStatement() {
+
+        try {
+            User user = service.save(createNewUser());
+            UserDTO replacement = createNewUserDTO();
+            replacement.setName("Outro Nome");
+
+            SqlStatementCounter.reset();
+            User replaced = service.replace(user.getId(), user.getVersion(), replacement).orElseThrow();
+
+            assertThat(SqlStatementCounter.statements()).hasSize(1)
+                    .allSatisfy(statement -> assertThat(statement).startsWith("update"));
+            assertThat(replaced.getVersion()).isEqualTo(user.getVersion() + 1);
+            assertThat(repository.findById(user.getId())).get().extracting(User::getName).isEqualTo("Outro Nome");
+        } finally {
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve deletar o usuário por id usando um único DELETE, sem carregá-lo")
+    void shouldDeleteWithSingleStatement() {
+
+        try {
+            User user = service.save(createNewUser());
+
+            SqlStatementCounter.reset();
+            assertThat(service.delete(user.getId(), null)).isTrue();
+
+            assertThat(SqlStatementCounter.statements()).hasSize(1)
+                    .allSatisfy(statement -> assertThat(statement).startsWith("delete"));
+
+            SqlStatementCounter.reset();
+            assertThat(service.delete(user.getId(), null)).isFalse();
+
+            assertThat(SqlStatementCounter.statements()).hasSize(1);
+            assertThat(repository.existsById(user.getId())).isFalse();
+        } finally {
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve buscar pelo índice de trigramas os mesmos usuários da consulta por exemplo")
+    void shouldFindThroughSearchIndexLikeExampleQuery() {
+
+        try {
+            service.saveAll(createNewUserDTOs(300, 0));
+            searchIndex.rebuild();
+
+            User renamed = service.save(createNewUser());
+            service.update(renamed.getId(), null, UserDTO.builder().name("Mario 12 Renomeado").build());
+
+            User removed = service.findByCpf(createNewUserDTOs(1, 120).get(0).getCpf()).orElseThrow();
+            service.delete(removed.getId(), null);
+
+            // Gravado sem passar pelo serviço, como por outra instância, fica fora do índice
+            User direct = repository.saveAndFlush(userMapper.toEntity(createNewUserDTOs(1, 500).get(0))
+                    .toBuilder().name("Mario 12 Direto").build());
+
+            User filter = User.builder().name("rio 12").build();
+
+            List<User> found = service.find(filter);
+
+            assertThat(found).extracting(User::getId)
+                    .isSortedAccordingTo(Long::compare)
+                    .doesNotContain(removed.getId())
+                    .contains(renamed.getId(), direct.getId())
+                    .containsExactlyInAnyOrderElementsOf(repository.findAll(UserUtil.createFilterUser(filter))
+                            .stream().map(User::getId).collect(Collectors.toList()));
+
+            List<User> page = service.find(User.builder().email("12@ex").build(), null, 5).getContent();
+
+            assertThat(page).extracting(User::getEmail)
+                    .containsExactly("usuario12@example.com", "usuario112@example.com", "usuario212@example.com");
+
+            assertThat(service.find(User.builder().name("12 direto").build(), null, 5).getContent())
+                    .extracting(User::getId)
+                    .containsExactly(direct.getId());
+        } finally {
+            repository.deleteAllInBatch();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve buscar apenas os campos pedidos, com resposta menor e sem selecionar as demais colunas")
+    void shouldProjectRequestedFieldsOnly() throws Exception {
+
+        try {
+            service.saveAll(createNewUserDTOs(2000, 0));
+
+            User filter = User.builder().name("usuario 1").build();
+            List<String> fields = userMapper.toFields("name");
+
+            SqlStatementCounter.reset();
+            List<Map<String, Object>> projected = service.find(filter, fields);
+
+            assertThat(SqlStatementCounter.statements()).isNotEmpty()
+                    .allSatisfy(statement -> assertThat(statement).doesNotContain("email", "cpf", "age", "version"));
+
+            List<User> full = service.find(filter);
+
+            assertThat(projected).extracting(user -> user.get("id"))
+                    .containsExactlyElementsOf(full.stream().map(User::getId).collect(Collectors.toList()));
+            assertThat(projected).allSatisfy(user -> assertThat(user).containsOnlyKeys("id", "name"));
+
+            int fullBytes = objectMapper.writeValueAsBytes(full).length;
+            int projectedBytes = objectMapper.writeValueAsBytes(projected).length;
+
+            int rounds = 50;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                objectMapper.writeValueAsBytes(service.find(filter));
+            }
+            long fullNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                objectMapper.writeValueAsBytes(service.find(filter, fields));
+            }
+            long projectedNanos = System.nanoTime() - start;
+
+            log.info("Busca de {} usuários: completa {} bytes em {} us, com fields=name {} bytes em {} us",
+                    full.size(), fullBytes, fullNanos / rounds / 1000, projectedBytes, projectedNanos / rounds / 1000);
+
+            assertThat(projectedBytes).isLessThan(fullBytes / 2);
+
+            CursorPageDTO<Map<String, Object>> page = service.find(filter, null, 5, fields);
+
+            assertThat(page.getContent()).extracting(user -> user.get("id"))
+                    .containsExactlyElementsOf(full.stream().limit(5).map(User::getId).collect(Collectors.toList()));
+            assertThat(service.find(filter, page.getNext(), 5, fields).getContent()).first()
+                    .extracting(user -> user.get("id")).isEqualTo(full.get(5).getId());
+
+            assertThat(service.findById(full.get(0).getId(), userMapper.toFields("cpf,version")))
+                    .get().satisfies(user -> assertThat(user).containsOnlyKeys("id", "cpf", "version")
+                            .containsEntry("cpf", userMapper.toDTO(full.get(0)).getCpf()));
+        } finally {
+            repository.deleteAllInBatch();
+        }
+    }
+}
@@ -1,30 +1,48 @@
 package com.example.userapi.service.impl;
 
+import com.example.userapi.api.dto.CursorPageDTO;
+import com.example.userapi.api.dto.UserBatchResultDTO;
 import com.example.userapi.api.dto.UserDTO;
+import com.example.userapi.api.mapper.UserMapper;
 import com.example.userapi.exception.BusinessException;
 import com.example.userapi.model.entity.User;
 import com.example.userapi.model.repository.UserRepository;
 import com.example.userapi.service.UserService;
+import com.example.userapi.util.CursorUtils;
 import com.example.userapi.util.UserUtil;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.LongStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static com.example.userapi.util.UserUtil.createNewUser;
+import static com.example.userapi.util.UserUtil.createNewUserDTOs;
+import static com.example.userapi.util.UserUtil.createNewUsers;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
@@ -37,16 +55,21 @@ class UserServiceImplTest {
     @MockBean
     public UserRepository repository;
 
-    @MockBean
-    public ModelMapper modelMapper;
-
     @MockBean
     public Validator validator;
 
+    private UserKeyFilter keyFilter;
+
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     public void setUp() {
-        this.service = new UserServiceImpl(repository, modelMapper, validator);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.keyFilter = new UserKeyFilter(repository, meterRegistry);
+        this.service = new UserServiceImpl(repository, new UserMapper(), validator, keyFilter,
+                new UserCache(new SimpleMeterRegistry()), new UserSearchIndex(repository, new SimpleMeterRegistry(), false),
+                new UserSnapshot(repository, new SimpleMeterRegistry(), false, Path.of("target", "users.snapshot"), Duration.ofHours(2)),
+                new UserWriteCoalescer(null, new SimpleMeterRegistry(), false, 1, Duration.ZERO, 1, Duration.ZERO));
     }
 
     @Test
@@ -54,11 +77,10 @@ class UserServiceImplTest {
     public void shouldSaveUserWhenSuccessful() {
         User userToSaved = createNewUser();
 
-        when(repository.existsByCpf(Mockito.anyString()) ).thenReturn(false);
-        when(repository.save(userToSaved)).thenReturn(
+        when(repository.saveAndFlush(userToSaved)).thenReturn(
                 User.builder().id(1L)
                         .name("Franciele Ferreira")
-                        .cpf("897.408.970-02")
+                        .cpf(89740897002L)
                         .email("email@example.com")
                         .age(25)
                         .build()
@@ -79,7 +101,7 @@ class UserServiceImplTest {
 
         User user = createNewUser();
 
-        when(repository.existsByCpf(Mockito.anyString())).thenReturn(true);
+        when(repository.saveAndFlush(user)).thenThrow(duplicateKey(User.CPF_CONSTRAINT));
 
         Throwable exception = Assertions.catchThrowable(() -> service.save(user));
 
@@ -87,7 +109,7 @@ class UserServiceImplTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Já existe um usuário com o cpf informado!");
 
-        Mockito.verify(repository, Mockito.never()).save(user);
+        Mockito.verify(repository, Mockito.never()).existsByCpf(Mockito.anyLong());
 
     }
 
@@ -97,7 +119,7 @@ class UserServiceImplTest {
 
         User user = createNewUser();
 
-        when(repository.existsByEmail(Mockito.anyString())).thenReturn(true);
+        when(repository.saveAndFlush(user)).thenThrow(duplicateKey(User.EMAIL_CONSTRAINT));
 
         Throwable exception = Assertions.catchThrowable(() -> service.save(user));
 
@@ -105,7 +127,7 @@ class UserServiceImplTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Já existe um usuário com o email informado!");
 
-        Mockito.verify(repository, Mockito.never()).save(user);
+        Mockito.verify(repository, Mockito.never()).existsByEmail(Mockito.anyString());
 
     }
 
@@ -141,16 +163,111 @@ class UserServiceImplTest {
 
     }
 
+    @Test
+    @DisplayName("Deve obter um usuário pelo cpf na forma numérica")
+    public void shouldFindUserByNormalizedCpf(){
+        User user = createNewUser();
+
+        when(repository.findByCpf(89740897002L)).thenReturn(Optional.of(user));
+
+        assertThat(service.findByCpf("897.408.970-02")).contains(user);
+        assertThat(service.findByCpf("89740897002")).contains(user);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negocio ao obter um usuário por cpf inválido")
+    public void shouldNotFindUserByInvalidCpf(){
+
+        Throwable exception = Assertions.catchThrowable(() -> service.findByCpf("897.408.970-03"));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("O cpf informado é inválido!");
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Deve obter do cache um usuário já consultado, retornando cópias independentes")
+    public void shouldReturnCachedUserCopies(){
+        Long id = 1L;
+        User user = createNewUser();
+        user.setId(id);
+
+        when(repository.findById(id)).thenReturn(Optional.of(user));
+
+        User first = service.findById(id).orElseThrow();
+        first.setAge(99);
+        User second = service.findById(id).orElseThrow();
+
+        assertThat(second.getAge()).isEqualTo(user.getAge());
+        assertThat(second).isNotSameAs(first);
+        Mockito.verify(repository, Mockito.times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Deve manter em cache os ids inexistentes até que um usuário seja salvo com o id")
+    public void shouldCacheNotFoundUntilUserIsSaved(){
+        Long id = 1L;
+        User user = createNewUser();
+        user.setId(id);
+
+        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        assertThat(service.findById(id)).isEmpty();
+        assertThat(service.findById(id)).isEmpty();
+        Mockito.verify(repository, Mockito.times(1)).findById(id);
+
+        when(repository.saveAndFlush(user)).thenReturn(user);
+        when(repository.findById(id)).thenReturn(Optional.of(user));
+
+        service.save(user);
+
+        assertThat(service.findById(id)).isPresent();
+        Mockito.verify(repository, Mockito.times(2)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache o usuário deletado")
+    public void shouldEvictDeletedUser(){
+        Long id = 1L;
+        User user = createNewUser();
+        user.setId(id);
+
+        when(repository.findById(id)).thenReturn(Optional.of(user));
+
+        when(repository.removeById(id)).thenReturn(1);
+
+        service.findById(id);
+        service.delete(id, null);
+
+        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        assertThat(service.findById(id)).isEmpty();
+        Mockito.verify(repository, Mockito.times(2)).findById(id);
+    }
+
     @Test
     @DisplayName("Deve deletar o usuário com o id informado.")
     public void shouldDelteUserByIdWhenSuccessful(){
 
-        User user = new User();
-        user.setId(1L);
+        when(repository.removeById(1L)).thenReturn(1);
+
+        assertThat(service.delete(1L, null)).isTrue();
+
+        Mockito.verify(repository, Mockito.times(1)).removeById(1L);
+        Mockito.verify(repository, Mockito.never()).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve retornar falso ao deletar um usuário inexistente sem versão.")
+    public void shouldReturnFalseWhenDeletingMissingUserWithoutVersion(){
+
+        when(repository.removeById(1L)).thenReturn(0);
 
-        assertDoesNotThrow( () -> service.delete(user) );
+        assertThat(service.delete(1L, null)).isFalse();
 
-        Mockito.verify(repository, Mockito.times(1)).delete(user);
+        Mockito.verify(repository, Mockito.never()).existsById(1L);
     }
 
 
@@ -163,28 +280,21 @@ class UserServiceImplTest {
         UserDTO userDTO = UserDTO.builder().age(newAge).build();
 
         Long id = 1L;
-        User updatingUser = User.builder().id(1L).build();
-
         User updatedUser = createNewUser();
         updatedUser.setId(id);
+        updatedUser.setAge(newAge);
 
-        when(repository.save(updatingUser)).thenReturn(updatedUser);
+        User original = createNewUser();
 
-        doAnswer(invocation -> {
-            UserDTO userDTOO = invocation.getArgument(0);
-            updatedUser.setName(userDTOO.getName() != null ? userDTOO.getName(): updatedUser.getName());
-            updatedUser.setCpf(userDTOO.getCpf() != null ? userDTOO.getCpf(): updatedUser.getCpf());
-            updatedUser.setEmail(userDTOO.getEmail() != null ? userDTOO.getEmail(): updatedUser.getEmail());
-            updatedUser.setAge(userDTOO.getAge() != null ? userDTOO.getAge(): updatedUser.getAge());
-            return null;
-        }).when(modelMapper).map(userDTO, updatingUser);
+        when(repository.updateFields(eq(id), isNull(), Mockito.any(User.class))).thenReturn(1);
+        when(repository.findById(id)).thenReturn(Optional.of(updatedUser));
 
-        User user = service.update(userDTO, updatingUser);
+        User user = service.update(id, null, userDTO).orElseThrow();
 
-        assertThat(user.getId()).isEqualTo(updatedUser.getId());
-        assertThat(user.getName()).isEqualTo(updatedUser.getName());
-        assertThat(user.getCpf()).isEqualTo(updatedUser.getCpf());
-        assertThat(user.getEmail()).isEqualTo(updatedUser.getEmail());
+        assertThat(user.getId()).isEqualTo(id);
+        assertThat(user.getName()).isEqualTo(original.getName());
+        assertThat(user.getCpf()).isEqualTo(original.getCpf());
+        assertThat(user.getEmail()).isEqualTo(original.getEmail());
         assertThat(user.getAge()).isEqualTo(newAge);
 
     }
@@ -193,38 +303,32 @@ class UserServiceImplTest {
     @DisplayName("Deve retornar exceção quando atualizar cpf já cadastrado.")
     public void shouldThrowExceptionWhenUpdatingUserCpfWithCpfExists(){
 
-        User user = createNewUser();
         UserDTO userDTO = UserDTO.builder().cpf("148.031.650-41").build();
 
-        when(repository.existsByCpf(Mockito.anyString()) ).thenReturn(true);
+        when(repository.updateFields(eq(1L), isNull(), Mockito.any(User.class))).thenThrow(duplicateKey(User.CPF_CONSTRAINT));
 
-        Throwable exception = Assertions.catchThrowable(() -> service.update(userDTO, user));
+        Throwable exception = Assertions.catchThrowable(() -> service.update(1L, null, userDTO));
 
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Já existe um usuário com o cpf informado!");
 
-        Mockito.verify(repository, Mockito.never()).save(user);
-
     }
 
     @Test
     @DisplayName("Deve retornar exceção quando atualizar cpf já cadastrado.")
     public void shouldThrowExceptionWhenUpdatingUserEmailWithEmailExists(){
 
-        User user = createNewUser();
         UserDTO userDTO = UserDTO.builder().email("newemail@exampli.com.br").build();
 
-        when(repository.existsByEmail(Mockito.anyString()) ).thenReturn(true);
+        when(repository.updateFields(eq(1L), isNull(), Mockito.any(User.class))).thenThrow(duplicateKey(User.EMAIL_CONSTRAINT));
 
-        Throwable exception = Assertions.catchThrowable(() -> service.update(userDTO, user));
+        Throwable exception = Assertions.catchThrowable(() -> service.update(1L, null, userDTO));
 
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Já existe um usuário com o email informado!");
 
-        Mockito.verify(repository, Mockito.never()).save(user);
-
     }
 
     @Test
@@ -242,4 +346,161 @@ class UserServiceImplTest {
         assertThat(filterdUsers).isNotEmpty();
         assertThat(filterdUsers).contains(user);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve retornar uma página com cursor para a próxima página quando houver mais registros")
+    public void shouldReturnPageWithNextCursor(){
+
+        User filter = new User();
+        List<User> users = createNewUsers(3);
+        LongStream.range(0, 3).forEach(i -> users.get((int) i).setId(i + 10));
+
+        when(repository.findAllAfter(UserUtil.createFilterUser(filter), 9L, 3)).thenReturn(users);
+
+        CursorPageDTO<User> page = service.find(filter, CursorUtils.encode(9L), 2);
+
+        assertThat(page.getContent()).extracting(User::getId).containsExactly(10L, 11L);
+        assertThat(CursorUtils.decode(page.getNext())).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("Deve retornar a última página sem cursor para a próxima página")
+    public void shouldReturnLastPageWithoutNextCursor(){
+
+        User filter = new User();
+        List<User> users = createNewUsers(2);
+
+        when(repository.findAllAfter(UserUtil.createFilterUser(filter), null, 3)).thenReturn(users);
+
+        CursorPageDTO<User> page = service.find(filter, null, 2);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negocio ao informar um cursor inválido")
+    public void shouldThrowExceptionWhenCursorIsInvalid(){
+
+        Throwable exception = Assertions.catchThrowable(() -> service.find(new User(), "cursor-invalido", 10));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("O cursor informado é inválido!");
+    }
+
+    @Test
+    @DisplayName("Deve criar usuários em lote informando o resultado de cada item")
+    public void shouldSaveAllReportingResultPerItem(){
+
+        List<UserDTO> users = createNewUserDTOs(4, 0);
+        users.get(2).setCpf(users.get(0).getCpf());
+        users.get(3).setEmail(users.get(3).getEmail().toUpperCase());
+
+        when(repository.findExistingCpfs(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+        when(repository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList(users.get(3).getEmail().toLowerCase()));
+        doAnswer(invocation -> {
+            List<User> inserted = invocation.getArgument(0);
+            LongStream.range(0, inserted.size()).forEach(i -> inserted.get((int) i).setId(i + 1));
+            return null;
+        }).when(repository).insertAll(Mockito.anyList());
+
+        List<UserBatchResultDTO> results = service.saveAll(users);
+
+        assertThat(results).extracting(UserBatchResultDTO::getStatus).containsExactly(
+                UserBatchResultDTO.Status.CREATED,
+                UserBatchResultDTO.Status.CREATED,
+                UserBatchResultDTO.Status.DUPLICATE,
+                UserBatchResultDTO.Status.DUPLICATE);
+        assertThat(results).extracting(UserBatchResultDTO::getId).containsExactly(1L, 2L, null, null);
+        assertThat(results.get(2).getErrors()).containsExactly("Já existe um usuário com o cpf informado!");
+        assertThat(results.get(3).getErrors()).containsExactly("Já existe um usuário com o email informado!");
+    }
+
+    @Test
+    @DisplayName("Deve marcar como inválidos os usuários do lote que não passam na validação")
+    public void shouldReportInvalidUsersInBatch(){
+
+        UserDTO invalid = UserDTO.builder().build();
+
+        when(validator.validate(invalid)).thenAnswer(invocation -> Set.of(Mockito.mock(ConstraintViolation.class)));
+
+        List<UserBatchResultDTO> results = service.saveAll(Arrays.asList(invalid, null));
+
+        assertThat(results).extracting(UserBatchResultDTO::getStatus)
+                .containsExactly(UserBatchResultDTO.Status.INVALID, UserBatchResultDTO.Status.INVALID);
+
+        Mockito.verify(repository).insertAll(Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Deve consultar a base apenas pelas chaves que o filtro indica como possivelmente cadastradas")
+    public void shouldQueryOnlyKeysThatMightExist(){
+
+        List<User> users = createNewUsers(3);
+        User existing = users.get(0);
+
+        doAnswer(invocation -> {
+            BiConsumer<Long, String> action = invocation.getArgument(0);
+            action.accept(existing.getCpf(), existing.getEmail());
+            return null;
+        }).when(repository).streamKeys(Mockito.any());
+        keyFilter.rebuild();
+
+        when(repository.findExistingCpfs(Mockito.anyCollection())).thenReturn(Collections.singletonList(existing.getCpf()));
+        when(repository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList(existing.getEmail()));
+        doAnswer(invocation -> {
+            List<User> inserted = invocation.getArgument(0);
+            LongStream.range(0, inserted.size()).forEach(i -> inserted.get((int) i).setId(i + 1));
+            return null;
+        }).when(repository).insertAll(Mockito.anyList());
+
+        List<UserBatchResultDTO> results = service.insertAll(users);
+
+        assertThat(results).extracting(UserBatchResultDTO::getStatus).containsExactly(
+                UserBatchResultDTO.Status.DUPLICATE,
+                UserBatchResultDTO.Status.CREATED,
+                UserBatchResultDTO.Status.CREATED);
+
+        Mockito.verify(repository).findExistingCpfs(Collections.singletonList(existing.getCpf()));
+        Mockito.verify(repository).findExistingEmails(Collections.singletonList(existing.getEmail()));
+    }
+
+    @Test
+    @DisplayName("Deve contar falsos positivos apenas com o filtro construído e sem diferenciar maiúsculas no email")
+    public void shouldCountFalsePositivesOnlyFromBuiltFilter() {
+
+        List<User> users = createNewUsers(2);
+        User existing = users.get(0);
+        users.get(1).setEmail(existing.getEmail().toUpperCase(Locale.ROOT));
+
+        when(repository.findExistingCpfs(Mockito.anyCollection())).thenReturn(Collections.singletonList(existing.getCpf()));
+        when(repository.findExistingEmails(Mockito.anyCollection())).thenReturn(Collections.singletonList(existing.getEmail()));
+
+        service.insertAll(users);
+
+        assertThat(falsePositives("cpf") + falsePositives("email")).isZero();
+
+        doAnswer(invocation -> {
+            BiConsumer<Long, String> action = invocation.getArgument(0);
+            action.accept(existing.getCpf(), existing.getEmail());
+            return null;
+        }).when(repository).streamKeys(Mockito.any());
+        keyFilter.rebuild();
+
+        List<UserBatchResultDTO> results = service.insertAll(users);
+
+        assertThat(results).extracting(UserBatchResultDTO::getStatus)
+                .containsOnly(UserBatchResultDTO.Status.DUPLICATE);
+        assertThat(falsePositives("cpf") + falsePositives("email")).isZero();
+    }
+
+    private double falsePositives(String type) {
+        return meterRegistry.get("users.key.filter.false.positives").tag("type", type).counter().count();
+    }
+
+    private static DataIntegrityViolationException duplicateKey(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException(), constraint));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.util.UserUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+
+class UserSnapshotTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("Deve reaplicar as escritas feitas durante a reconstrução e responder após reiniciar sem a base")
+    void shouldReplayWritesAndServeAfterRestart(@TempDir Path directory) {
+
+        Path path = directory.resolve("users.snapshot");
+        UserRepository repository = Mockito.mock(UserRepository.class);
+        UserSnapshot snapshot = new UserSnapshot(repository, new SimpleMeterRegistry(), true, path, MAX_STALENESS);
+
+        List<User> users = UserUtil.createNewUsers(5);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(i + 1L);
+            users.get(i).setVersion(0L);
+        }
+
+        User renamed = users.get(0).toBuilder().name("Renomeado Durante a Leitura").version(1L).build();
+
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(users.get(0));
+            snapshot.put(renamed);
+            snapshot.remove(2L);
+            users.forEach(action);
+            return null;
+        }).when(repository).streamAll(Mockito.any());
+
+        assertThat(snapshot.find(new User(), null, 10)).isNull();
+
+        snapshot.rebuild();
+
+        assertThat(snapshot.find(new User(), null, 10))
+                .extracting(User::getId, User::getName)
+                .containsExactly(
+                        tuple(1L, renamed.getName()),
+                        tuple(3L, users.get(2).getName()),
+                        tuple(4L, users.get(3).getName()),
+                        tuple(5L, users.get(4).getName()));
+
+        // Inserido por outra instância depois da última gravação do arquivo
+        User inserted = UserUtil.createNewUsers(6).get(5).toBuilder().id(6L).version(0L).name("Renomeado Por Outra").build();
+        UserRepository restartedRepository = Mockito.mock(UserRepository.class);
+        given(restartedRepository.findAllAfter(Mockito.any(), Mockito.eq(5L), Mockito.anyInt())).willReturn(List.of(inserted));
+
+        UserSnapshot restarted = new UserSnapshot(restartedRepository, new SimpleMeterRegistry(), true, path, MAX_STALENESS);
+        restarted.load();
+
+        assertThat(restarted.isReady()).isTrue();
+        assertThat(restarted.find(User.builder().name("renomeado").build(), null, 10))
+                .extracting(User::getId)
+                .containsExactly(1L, 6L);
+    }
+
+    @Test
+    @DisplayName("Deve deixar as buscas para a base quando a última leitura completa for mais antiga que o limite")
+    void shouldNotServeStaleSnapshot(@TempDir Path directory) throws IOException {
+
+        Path path = directory.resolve("users.snapshot");
+
+        UserColumns columns = new UserColumns();
+        User user = UserUtil.createNewUsers(1).get(0).toBuilder().id(1L).version(0L).build();
+        columns.put(user);
+        columns.synced(System.currentTimeMillis() - MAX_STALENESS.toMillis() - 1000, 1L);
+        columns.write(path);
+
+        UserSnapshot restarted = new UserSnapshot(Mockito.mock(UserRepository.class), new SimpleMeterRegistry(), true,
+                path, MAX_STALENESS);
+        restarted.load();
+
+        assertThat(restarted.isReady()).isTrue();
+        assertThat(restarted.find(new User(), null, 10)).isNull();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.userapi.service.impl;
+
+import com.example.userapi.api.dto.UserBatchResultDTO;
+import com.example.userapi.exception.BusinessException;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.example.userapi.model.entity.User;
+import com.example.userapi.model.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.example.userapi.util.UserUtil.createNewUsers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupcommit",
+        "users.write.group-commit.enabled=true",
+        "users.write.group-commit.max-delay=200ms"
+})
+@ActiveProfiles("test")
+class UserWriteCoalescerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private UserKeyFilter userKeyFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        executor = Executors.newFixedThreadPool(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve gravar as inserções simultâneas em grupo e recusar apenas as duplicadas")
+    void shouldCommitConcurrentInsertsTogether() {
+
+        List<User> users = createNewUsers(30);
+        List<User> duplicates = users.subList(0, 10).stream()
+                .map(user -> user.toBuilder().email("outro." + user.getEmail()).build())
+                .collect(Collectors.toList());
+
+        List<User> all = new ArrayList<>(users);
+        all.addAll(duplicates);
+
+        List<Object> results = saveConcurrently(all);
+
+        assertThat(results).filteredOn(User.class::isInstance).hasSize(30)
+                .allSatisfy(user -> assertThat(((User) user).getId()).isNotNull());
+        assertThat(results).filteredOn(BusinessException.class::isInstance).hasSize(10)
+                .allSatisfy(ex -> assertThat(((BusinessException) ex).getMessage())
+                        .isEqualTo("Já existe um usuário com o cpf informado!"));
+        assertThat(repository.count()).isEqualTo(30);
+        assertThat(meterRegistry.get("users.write.group.size").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Deve repetir individualmente um grupo desfeito por uma inserção concorrente fora dele")
+    void shouldRetryAloneWhenGroupFails() throws InterruptedException {
+
+        List<User> users = createNewUsers(35).subList(30, 35);
+
+        // Aguarda a reconstrução inicial do filtro, depois da qual um cpf nunca inserido é recusado por ele
+        for (int i = 0; i < 100 && userKeyFilter.cpfs().mightContain(users.get(0).getCpf()); i++) {
+            Thread.sleep(100);
+        }
+
+        // Gravado sem passar pelo serviço, o cpf não está no filtro de chaves e só a base o recusa
+        repository.saveAndFlush(users.get(0).toBuilder().email("direto@example.com").build());
+
+        List<Object> results = saveConcurrently(users);
+
+        assertThat(results.get(0)).isInstanceOf(BusinessException.class);
+        assertThat(results.subList(1, 5)).allSatisfy(result -> assertThat(result).isInstanceOf(User.class));
+        assertThat(repository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Deve responder todas as inserções de um grupo desfeito por um Error e recusar as que chegam após o encerramento")
+    void shouldSurviveErrorsAndRejectAfterStop() throws InterruptedException {
+
+        UserService failing = Mockito.mock(UserService.class);
+        UserWriteCoalescer coalescer = new UserWriteCoalescer(failing, meterRegistry, true, 10, Duration.ofMillis(1), 10,
+                Duration.ofSeconds(5));
+        User user = createNewUsers(1).get(0);
+
+        given(failing.insertAll(Mockito.anyList()))
+                .willThrow(new AssertionError("falha inesperada"))
+                .willReturn(List.of(UserBatchResultDTO.builder().status(UserBatchResultDTO.Status.CREATED).build()));
+
+        coalescer.start();
+        try {
+            assertThatThrownBy(() -> coalescer.save(user)).isInstanceOf(IllegalStateException.class)
+                    .hasCauseInstanceOf(AssertionError.class);
+            assertThat(coalescer.save(user)).isSameAs(user);
+        } finally {
+            coalescer.stop();
+        }
+
+        assertThatThrownBy(() -> coalescer.save(user)).isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("A aplicação está sendo encerrada, tente novamente em instantes!");
+    }
+
+    @Test
+    @DisplayName("Deve recusar com indisponibilidade a inserção que não é gravada dentro do tempo limite")
+    void shouldTimeOutWhenWriterDoesNotAnswer() {
+
+        UserWriteCoalescer coalescer = new UserWriteCoalescer(Mockito.mock(UserService.class), meterRegistry, true, 10,
+                Duration.ofMillis(1), 1, Duration.ofMillis(100));
+
+        // Sem iniciar a thread de gravação, a primeira inserção fica na fila e a segunda não encontra espaço
+        List<User> users = createNewUsers(2);
+
+        assertThatThrownBy(() -> coalescer.save(users.get(0))).isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("A gravação do usuário não foi concluída a tempo, tente novamente em instantes!");
+        assertThatThrownBy(() -> coalescer.save(users.get(1))).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private List<Object> saveConcurrently(List<User> users) {
+
+        List<CompletableFuture<Object>> futures = users.stream()
+                .map(user -> CompletableFuture.supplyAsync(() -> (Object) userService.save(user), executor)
+                        .exceptionally(ex -> ex instanceof CompletionException ? ex.getCause() : ex))
+                .collect(Collectors.toList());
+
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.userapi.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Deve sempre indicar como possivelmente presentes as chaves inseridas")
+    void shouldNotReturnFalseNegatives() {
+
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        IntStream.range(0, 10_000).forEach(i -> filter.put("usuario" + i + "@example.com"));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("usuario" + i + "@example.com"));
+        assertThat(filter.approximateElementCount()).isBetween(9_500L, 10_500L);
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falsos positivos próxima da configurada")
+    void shouldKeepFalsePositiveRateNearConfigured() {
+
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        IntStream.range(0, 10_000).forEach(i -> filter.put("usuario" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("usuario" + i + "@example.com"))
+                .count();
+
+        assertThat(falsePositives / 100_000d).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+}
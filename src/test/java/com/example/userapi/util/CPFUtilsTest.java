@@ -0,0 +1,33 @@
+package com.example.userapi.util;
+
+import com.example.userapi.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CPFUtilsTest {
+
+    @Test
+    @DisplayName("Deve converter o cpf com ou sem pontuação para a mesma forma numérica")
+    void shouldParseFormattedAndUnformattedCpf() {
+
+        assertThat(CPFUtils.parse("565.378.540-75")).isEqualTo(56537854075L);
+        assertThat(CPFUtils.parse("56537854075")).isEqualTo(56537854075L);
+        assertThat(CPFUtils.parse("012.345.678-90")).isEqualTo(1234567890L);
+        assertThat(CPFUtils.parse(null)).isNull();
+
+        assertThatThrownBy(() -> CPFUtils.parse("565a37854075")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> CPFUtils.parse("5653785407512")).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Deve formatar o cpf com pontuação e zeros à esquerda")
+    void shouldFormatCpf() {
+
+        assertThat(CPFUtils.format(56537854075L)).isEqualTo("565.378.540-75");
+        assertThat(CPFUtils.format(1234567890L)).isEqualTo("012.345.678-90");
+        assertThat(CPFUtils.format(null)).isNull();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.userapi.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    @DisplayName("Deve retornar em ordem todos os ids cujo valor contém o termo, sem diferenciar maiúsculas")
+    void shouldReturnIdsContainingTerm() {
+
+        TrigramIndex index = new TrigramIndex();
+
+        IntStream.range(0, 1000).forEach(i -> index.add(i, "Usuario " + i));
+
+        long[] expected = LongStream.range(0, 1000).filter(i -> ("usuario " + i).contains("rio 12")).toArray();
+
+        assertThat(index.candidates("RIO 12")).containsExactly(expected);
+        assertThat(index.candidates("Maria")).isEmpty();
+        assertThat(index.candidates("12")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve manter os ids ordenados quando inseridos fora de ordem")
+    void shouldKeepIdsSortedWhenAddedOutOfOrder() {
+
+        TrigramIndex index = new TrigramIndex();
+
+        index.add(30, "Franciele");
+        index.add(10, "Francisco");
+        index.add(20, "Francine");
+        index.add(10, "Francisco");
+
+        assertThat(index.candidates("franc")).containsExactly(10, 20, 30);
+        assertThat(index.candidates("ncine")).containsExactly(20);
+        assertThat(TrigramIndex.intersect(new long[]{10, 20, 30}, new long[]{5, 20, 30, 40})).containsExactly(20, 30);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar nomes acentuados por termos sem acento e vice-versa, como a collation do MySQL")
+    void shouldIgnoreAccents() {
+
+        TrigramIndex index = new TrigramIndex();
+
+        index.add(1, "João Vicente");
+        index.add(2, "Joana Conceição");
+        index.add(3, "Joao Pedro");
+
+        assertThat(index.candidates("joao")).containsExactly(1, 3);
+        assertThat(index.candidates("JOÃO")).containsExactly(1, 3);
+        assertThat(index.candidates("conceicao")).containsExactly(2);
+        assertThat(index.candidates("çã")).isNull();
+    }
+}
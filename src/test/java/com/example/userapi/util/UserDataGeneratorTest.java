@@ -0,0 +1,63 @@
+package com.example.userapi.util;
+
+import com.example.userapi.api.validator.CPFValidador;
+import com.example.userapi.model.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+class UserDataGeneratorTest {
+
+    @Test
+    @DisplayName("Deve gerar usuários válidos com cpfs e emails únicos")
+    void shouldGenerateValidUniqueUsers() {
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        List<User> users = new UserDataGenerator(7).users(0, 20_000);
+
+        Set<Long> cpfs = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        assertThat(users).hasSize(20_000).allSatisfy(user -> {
+            assertThat(CPFValidador.isValid(CPFUtils.format(user.getCpf()))).isTrue();
+            assertThat(validator.validate(user)).isEmpty();
+            assertThat(cpfs.add(user.getCpf())).isTrue();
+            assertThat(emails.add(user.getEmail())).isTrue();
+        });
+
+        assertThat(users.stream().mapToInt(User::getAge).average()).hasValueCloseTo(38.0, offset(1.0));
+        assertThat(users.stream().map(user -> user.getName().split(" ").length).distinct()).contains(2, 3, 4, 5);
+    }
+
+    @Test
+    @DisplayName("Deve gerar o mesmo usuário para a mesma semente e índice, independente da ordem")
+    void shouldBeDeterministic() {
+
+        UserDataGenerator generator = new UserDataGenerator(42);
+        User user = new UserDataGenerator(42).user(123_456);
+
+        generator.users(0, 10);
+
+        assertThat(generator.user(123_456)).usingRecursiveComparison().isEqualTo(user);
+        assertThat(new UserDataGenerator(43).user(123_456).getCpf()).isNotEqualTo(user.getCpf());
+    }
+
+    @Test
+    @DisplayName("Deve pular os cpfs de dígitos repetidos")
+    void shouldSkipRepeatedDigitCpfs() {
+
+        assertThat(LongStream.of(0, 111_111_109, 111_111_110, UserDataGenerator.MAX_USERS - 1)
+                .map(UserDataGenerator::base))
+                .containsExactly(1L, 111_111_110L, 111_111_112L, 999_999_998L);
+        assertThat(CPFValidador.withCheckDigits(529_982_247)).isEqualTo(52998224725L);
+    }
+}
@@ -5,12 +5,15 @@ import com.example.userapi.model.entity.User;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class UserUtil {
     public static User createNewUser() {
 
         return User.builder()
                 .name("Franciele Ferreira")
-                .cpf("897.408.970-02")
+                .cpf(89740897002L)
                 .email("email@example.com")
                 .age(25)
                 .build();
@@ -36,4 +39,59 @@ public class UserUtil {
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
         );
     }
+
+    public static List<User> createNewUsers(int count) {
+
+        List<User> users = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .name("Usuario " + i)
+                    .cpf(CPFUtils.parse(createValidCpf(100_000_000 + i)))
+                    .email("usuario" + i + "@example.com")
+                    .age(18 + i % 80)
+                    .build());
+        }
+
+        return users;
+    }
+
+    public static List<UserDTO> createNewUserDTOs(int count, int offset) {
+
+        List<UserDTO> users = new ArrayList<>(count);
+
+        for (int i = offset; i < offset + count; i++) {
+            users.add(UserDTO.builder()
+                    .name("Usuario " + i)
+                    .cpf(createValidCpf(100_000_000 + i))
+                    .email("usuario" + i + "@example.com")
+                    .age(18 + i % 80)
+                    .build());
+        }
+
+        return users;
+    }
+
+    public static String createValidCpf(int base) {
+
+        String digits = String.format("%09d", base);
+
+        int digito1 = checkDigit(digits);
+        int digito2 = checkDigit(digits + digito1);
+
+        return String.format("%s.%s.%s-%d%d",
+                digits.substring(0, 3), digits.substring(3, 6), digits.substring(6, 9), digito1, digito2);
+    }
+
+    private static int checkDigit(String digits) {
+        int soma = 0;
+        int peso = digits.length() + 1;
+
+        for (int i = 0; i < digits.length(); i++) {
+            soma += Character.getNumericValue(digits.charAt(i)) * peso--;
+        }
+
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
 }